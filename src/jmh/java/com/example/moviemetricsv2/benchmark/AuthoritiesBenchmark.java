@@ -0,0 +1,51 @@
+package com.example.moviemetricsv2.benchmark;
+
+import com.example.moviemetricsv2.api.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthoritiesBenchmark {
+    private static final String LAST_AUTHORITY = "DELETE_OWN_REVIEWS";
+
+    private User user;
+    private Authentication authentication;
+    private AuthorityAuthorizationManager<Object> authorizationManager;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(Fixtures.adminRole());
+        authentication = authenticate();
+        authorizationManager = AuthorityAuthorizationManager.hasAuthority(LAST_AUTHORITY);
+    }
+
+    // What AuthenticationFilter does once per request
+    @Benchmark
+    public Authentication authenticate() {
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    // What a @PreAuthorize("hasAuthority(...)") evaluation does, with a new expression root per invocation
+    @Benchmark
+    public boolean hasAuthorityExpression() {
+        return new SecurityExpressionRoot(authentication) {
+        }.hasAuthority(LAST_AUTHORITY);
+    }
+
+    // What an authorizeHttpRequests hasAuthority(...) rule does
+    @Benchmark
+    public AuthorizationDecision authorizationManagerCheck() {
+        return authorizationManager.check(() -> authentication, null);
+    }
+}
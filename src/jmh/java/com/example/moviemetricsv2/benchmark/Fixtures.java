@@ -0,0 +1,80 @@
+package com.example.moviemetricsv2.benchmark;
+
+import com.example.moviemetricsv2.api.model.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Detached entities shaped like the seeded data, shared by the benchmarks that need no database.
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static Role adminRole() {
+        EPermission[] permissions = EPermission.values();
+
+        return Role.builder()
+                .id(3L)
+                .name(ERole.Admin.getName())
+                .permissions(IntStream.range(0, permissions.length)
+                        .mapToObj(i -> Permission.builder().id((long) (i + 1)).name(permissions[i].getName()).build())
+                        .toList())
+                .build();
+    }
+
+    static User user(Role role) {
+        return User.builder()
+                .id(1L)
+                .email("root@root.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .role(role)
+                .build();
+    }
+
+    static List<Genre> genres() {
+        EGenre[] genres = EGenre.values();
+
+        return IntStream.range(0, genres.length)
+                .mapToObj(i -> Genre.builder().id((long) (i + 1)).name(genres[i].getName()).build())
+                .toList();
+    }
+
+    static List<Movie> movies(int count) {
+        List<Genre> genres = genres();
+        MovieClassification classification = MovieClassification.builder()
+                .id(1L)
+                .name(EMovieClassification.GeneralAudience.getName())
+                .brief(EMovieClassification.GeneralAudience.getBrief())
+                .build();
+
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    Movie movie = Movie.builder()
+                            .id((long) (i + 1))
+                            .title("Movie " + i)
+                            .description("Description of movie " + i)
+                            .classification(classification)
+                            .genres(new LinkedHashSet<>(genres.subList(0, 1 + i % 3)))
+                            .build();
+                    MovieRatingStats ratingStats = MovieRatingStats.of(movie);
+                    Arrays.asList((short) 3, (short) 4, (short) 5).forEach(ratingStats::add);
+                    movie.setRatingStats(ratingStats);
+                    return movie;
+                })
+                .toList();
+    }
+
+    static Review review(Movie movie, User author) {
+        return Review.builder()
+                .id(1L)
+                .movie(movie)
+                .author(author)
+                .score((short) 4)
+                .content("Benchmark review content")
+                .build();
+    }
+}
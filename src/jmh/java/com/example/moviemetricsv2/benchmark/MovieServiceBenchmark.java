@@ -0,0 +1,76 @@
+package com.example.moviemetricsv2.benchmark;
+
+import com.example.moviemetricsv2.MovieMetricsV2Application;
+import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.exception.DataConflictException;
+import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.service.MovieService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MovieService.create against the real application context on an in-memory H2 database, both the full
+ * insert path and the early rejection of a taken title.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieServiceBenchmark {
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MovieService movieService;
+    private MovieDto takenTitle;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(MovieMetricsV2Application.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+        movieService = context.getBean(MovieService.class);
+
+        takenTitle = movieDto("Taken");
+        movieService.create(takenTitle);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Movie create() {
+        return movieService.create(movieDto("Movie " + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public Object rejectTakenTitle() {
+        try {
+            return movieService.create(takenTitle);
+        } catch (DataConflictException ex) {
+            return ex;
+        }
+    }
+
+    private static MovieDto movieDto(String title) {
+        return MovieDto.builder()
+                .title(title)
+                .description("Benchmark description")
+                .classificationId(1L)
+                .genreIds(List.of(1L, 2L))
+                .build();
+    }
+}
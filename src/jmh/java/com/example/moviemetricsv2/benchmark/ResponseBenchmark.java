@@ -0,0 +1,51 @@
+package com.example.moviemetricsv2.benchmark;
+
+import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.model.Review;
+import com.example.moviemetricsv2.api.response.MovieResponse;
+import com.example.moviemetricsv2.api.response.ReviewResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBenchmark {
+    // Default and maximum page size of the movie listing
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Movie> movies;
+    private List<MovieResponse> movieResponses;
+    private Review review;
+
+    @Setup
+    public void setUp() {
+        movies = Fixtures.movies(pageSize);
+        movieResponses = movies.stream().map(MovieResponse::new).toList();
+        review = Fixtures.review(movies.get(0), Fixtures.user(Fixtures.adminRole()));
+    }
+
+    @Benchmark
+    public List<MovieResponse> buildMovieResponses() {
+        return movies.stream().map(MovieResponse::new).toList();
+    }
+
+    @Benchmark
+    public ReviewResponse buildReviewResponse() {
+        return new ReviewResponse(review);
+    }
+
+    @Benchmark
+    public byte[] serializeMovieResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movieResponses);
+    }
+}
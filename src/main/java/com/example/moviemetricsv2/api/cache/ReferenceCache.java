@@ -0,0 +1,93 @@
+package com.example.moviemetricsv2.api.cache;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-process snapshot of a small reference table. The snapshot is loaded on first read
+ * and replaced as a whole, so readers never see a partially updated table and never block.
+ */
+public class ReferenceCache<T> {
+    private final Supplier<List<T>> loader;
+    private final Function<T, Long> idOf;
+
+    private final AtomicReference<Snapshot<T>> snapshot = new AtomicReference<>(Snapshot.stale());
+
+    public ReferenceCache(Supplier<List<T>> loader, Function<T, Long> idOf) {
+        this.loader = loader;
+        this.idOf = idOf;
+    }
+
+    public List<T> getAll() {
+        return snapshot().all();
+    }
+
+    public Optional<T> get(Long id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public boolean contains(Long id) {
+        return snapshot().byId().containsKey(id);
+    }
+
+    public void refresh() {
+        invalidate();
+        snapshot();
+    }
+
+    public void invalidate() {
+        snapshot.set(Snapshot.stale());
+    }
+
+    /**
+     * Inserts the given rows whose names are not taken yet and returns every stored row. The table is read once
+     * and again only after an insert, so the snapshot is warm either way and the first request after boot does
+     * not pay for loading it.
+     */
+    public List<T> createAllIfNotFound(List<T> rows, Function<T, String> nameOf, Consumer<List<T>> insertAll) {
+        refresh();
+        Set<String> names = getAll().stream()
+                .map(row -> nameOf.apply(row).toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        List<T> missing = rows.stream()
+                .filter(row -> !names.contains(nameOf.apply(row).toUpperCase(Locale.ROOT)))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            insertAll.accept(missing);
+            refresh();
+        }
+
+        return getAll();
+    }
+
+    private Snapshot<T> snapshot() {
+        Snapshot<T> current = snapshot.get();
+
+        if (current.all() != null)
+            return current;
+
+        List<T> all = List.copyOf(loader.get());
+        Snapshot<T> loaded = new Snapshot<>(all, all.stream().collect(Collectors.toUnmodifiableMap(idOf, Function.identity())));
+
+        // Only publish if nothing was invalidated while loading, otherwise the next read loads again
+        snapshot.compareAndSet(current, loaded);
+
+        return loaded;
+    }
+
+    private record Snapshot<T>(List<T> all, Map<Long, T> byId) {
+        static <T> Snapshot<T> stale() {
+            return new Snapshot<>(null, null);
+        }
+    }
+}
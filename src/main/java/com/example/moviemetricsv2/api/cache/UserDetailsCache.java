@@ -0,0 +1,73 @@
+package com.example.moviemetricsv2.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of loaded users keyed by lower-cased email, so the authentication filter does not
+ * query the user, role and permissions on every request. Entries expire after a short TTL and are
+ * dropped explicitly whenever a user or role changes, once the change has committed.
+ */
+@Component
+public class UserDetailsCache {
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(Environment environment) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(environment.getProperty("auth.user_cache.max_size", Long.class, 10_000L))
+                .expireAfterWrite(Duration.ofSeconds(environment.getProperty("auth.user_cache.ttl_seconds", Long.class, 60L)))
+                .build();
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        String key = key(email);
+        UserDetails cached = cache.getIfPresent(key);
+
+        if (cached != null)
+            return cached;
+
+        // Loaded outside the cache's compute, which holds a monitor and would pin a virtual thread during the query;
+        // concurrent misses may load the same user twice, which is harmless
+        UserDetails loaded = loader.apply(email);
+        cache.put(key, loaded);
+
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        if (email != null)
+            afterCommit(() -> cache.invalidate(key(email)));
+    }
+
+    public void invalidateAll() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    // Dropping an entry before commit would let a concurrent login cache the old row again until the TTL expires
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
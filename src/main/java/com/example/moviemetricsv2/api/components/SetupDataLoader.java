@@ -13,10 +13,13 @@ import org.springframework.core.env.Environment;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -30,69 +33,64 @@ public class SetupDataLoader implements ApplicationListener<ContextRefreshedEven
     private final RoleService roleService;
     private final MovieClassificationService movieClassificationService;
 
-    boolean alreadySetup = false;
+    private final AtomicBoolean alreadySetup = new AtomicBoolean(false);
 
+    // Each reference table is read once and only its missing rows are inserted, so restarts on a seeded
+    // database cost four selects and the root user lookup
     @Override
     public void onApplicationEvent(ContextRefreshedEvent event) {
-        if (alreadySetup) return;
-
-        Map<EPermission, Permission> privileges = new HashMap<>();
-
-        for (int i = 0; i < EMovieClassification.values().length; i++) {
-            movieClassificationService.createIfNotFound(
-                    (long) (i + 1),
-                    EMovieClassification.values()[i].getName(),
-                    EMovieClassification.values()[i].getBrief()
-            );
-        }
-
-        for (int i = 0; i < EPermission.values().length; i ++) {
-            privileges.put(EPermission.values()[i],
-                    permissionService.findOrCreate(
-                            (long) (i+1),
-                            EPermission.values()[i].getName()
-                    ));
-        }
-
-        for (int i = 0; i < EGenre.values().length; i++) {
-            genreService.createIfNotFound(
-                    (long) (i + 1),
-                    EGenre.values()[i].getName()
-            );
-        }
-
-        List<Permission> userPrivileges = new ArrayList<>();
-
-        userPrivileges.add(privileges.get(EPermission.DisplayMovies));
-        userPrivileges.add(privileges.get(EPermission.DisplayReviews));
-        userPrivileges.add(privileges.get(EPermission.CreateReviews));
-        userPrivileges.add(privileges.get(EPermission.UpdateOwnReviews));
-        userPrivileges.add(privileges.get(EPermission.DeleteOwnReviews));
-
-        roleService.createIfNotFound(1L, ERole.User.getName(), userPrivileges);
-
-        List<Permission> moderatorPrivileges = new ArrayList<>();
-
-        moderatorPrivileges.add(privileges.get(EPermission.DisplayMovies));
-        moderatorPrivileges.add(privileges.get(EPermission.CreateMovies));
-        moderatorPrivileges.add(privileges.get(EPermission.UpdateMovies));
-        moderatorPrivileges.add(privileges.get(EPermission.DeleteMovies));
-
-        moderatorPrivileges.add(privileges.get(EPermission.DisplayReviews));
-        moderatorPrivileges.add(privileges.get(EPermission.CreateReviews));
-        moderatorPrivileges.add(privileges.get(EPermission.UpdateReviews));
-        moderatorPrivileges.add(privileges.get(EPermission.DeleteReviews));
-        
-        userPrivileges.add(privileges.get(EPermission.UpdateOwnReviews));
-        userPrivileges.add(privileges.get(EPermission.DeleteOwnReviews));
-
-        moderatorPrivileges.add(privileges.get(EPermission.DisplayUsers));
-
-        roleService.createIfNotFound(2L, ERole.Moderator.getName(), moderatorPrivileges);
-
-        Role adminRole = roleService.findOrCreate(3L, ERole.Admin.getName(), privileges.values().stream().toList());
+        if (!alreadySetup.compareAndSet(false, true)) return;
+
+        movieClassificationService.createAllIfNotFound(Arrays.stream(EMovieClassification.values())
+                .map(classification -> MovieClassification.builder()
+                        .id((long) (classification.ordinal() + 1))
+                        .name(classification.getName())
+                        .brief(classification.getBrief())
+                        .build())
+                .toList());
+
+        Map<String, Permission> privileges = permissionService.createAllIfNotFound(Arrays.stream(EPermission.values())
+                        .map(permission -> Permission.builder()
+                                .id((long) (permission.ordinal() + 1))
+                                .name(permission.getName())
+                                .build())
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(permission -> permission.getName().toUpperCase(Locale.ROOT), Function.identity()));
+
+        genreService.createAllIfNotFound(Arrays.stream(EGenre.values())
+                .map(genre -> Genre.builder()
+                        .id((long) (genre.ordinal() + 1))
+                        .name(genre.getName())
+                        .build())
+                .toList());
+
+        List<Role> roles = roleService.createAllIfNotFound(List.of(
+                createRole(1L, ERole.User, privileges,
+                        EPermission.DisplayMovies,
+                        EPermission.DisplayReviews,
+                        EPermission.CreateReviews,
+                        EPermission.UpdateOwnReviews,
+                        EPermission.DeleteOwnReviews),
+                createRole(2L, ERole.Moderator, privileges,
+                        EPermission.DisplayMovies,
+                        EPermission.CreateMovies,
+                        EPermission.UpdateMovies,
+                        EPermission.DeleteMovies,
+                        EPermission.DisplayReviews,
+                        EPermission.CreateReviews,
+                        EPermission.UpdateReviews,
+                        EPermission.DeleteReviews,
+                        EPermission.DisplayUsers),
+                createRole(3L, ERole.Admin, privileges, EPermission.values())
+        ));
 
         if (!userRepository.existsByEmailIgnoreCase(environment.getProperty("root.root_access"))) {
+            Role adminRole = roles.stream()
+                    .filter(role -> role.getName().equalsIgnoreCase(ERole.Admin.getName()))
+                    .findFirst()
+                    .orElseThrow();
+
             userRepository.save(
                     User.builder()
                             .email(environment.getProperty("root.root_access"))
@@ -102,4 +100,14 @@ public class SetupDataLoader implements ApplicationListener<ContextRefreshedEven
             );
         }
     }
+
+    private Role createRole(Long id, ERole role, Map<String, Permission> privileges, EPermission... permissions) {
+        return Role.builder()
+                .id(id)
+                .name(role.getName())
+                .permissions(Arrays.stream(permissions)
+                        .map(permission -> privileges.get(permission.getName().toUpperCase(Locale.ROOT)))
+                        .toList())
+                .build();
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.moviemetricsv2.api.components;
+
+import com.example.moviemetricsv2.api.controller.SqlBudget;
+import com.example.moviemetricsv2.api.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Aspect
+@Component
+public class SqlBudgetAspect {
+    private final MeterRegistry meterRegistry;
+    private final boolean enforce;
+
+    public SqlBudgetAspect(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.enforce = environment.getProperty("sql.budget.enforce", Boolean.class, false);
+    }
+
+    @Around("@annotation(sqlBudget)")
+    public Object checkBudget(ProceedingJoinPoint joinPoint, SqlBudget sqlBudget) throws Throwable {
+        boolean opened = SqlStatementCounter.open();
+        long before = SqlStatementCounter.count();
+
+        try {
+            Object result = joinPoint.proceed();
+            long statements = SqlStatementCounter.count() - before;
+
+            if (statements > sqlBudget.value()) {
+                String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+
+                meterRegistry.counter("moviemetrics.sql.budget.exceeded", "method", method).increment();
+                log.warn("{} executed {} SQL statements, budget is {}", method, statements, sqlBudget.value());
+
+                if (enforce)
+                    throw SqlBudgetExceededException.of(method, statements, sqlBudget.value());
+            }
+
+            return result;
+        } finally {
+            if (opened)
+                SqlStatementCounter.close();
+        }
+    }
+}
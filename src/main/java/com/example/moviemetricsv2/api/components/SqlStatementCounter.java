@@ -0,0 +1,43 @@
+package com.example.moviemetricsv2.api.components;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a scope is open. Every query, flush,
+ * lazy load and refresh goes through Hibernate, so this is the request's whole JDBC footprint; a JDBC batch counts
+ * once per statement, not per row.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+
+        if (count != null)
+            count[0]++;
+
+        return sql;
+    }
+
+    /**
+     * Opens a scope on this thread, returns false when one is already open and the caller must not close it.
+     */
+    public static boolean open() {
+        if (COUNT.get() != null)
+            return false;
+
+        COUNT.set(new long[1]);
+        return true;
+    }
+
+    public static long count() {
+        long[] count = COUNT.get();
+
+        return count == null ? 0 : count[0];
+    }
+
+    public static void close() {
+        COUNT.remove();
+    }
+}
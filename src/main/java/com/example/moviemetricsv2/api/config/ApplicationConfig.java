@@ -1,5 +1,6 @@
 package com.example.moviemetricsv2.api.config;
 
+import com.example.moviemetricsv2.api.cache.UserDetailsCache;
 import com.example.moviemetricsv2.api.repository.IUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -20,11 +21,12 @@ import org.springframework.security.web.access.AccessDeniedHandler;
 @RequiredArgsConstructor
 public class ApplicationConfig {
     private final IUserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmailIgnoreCase(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + username + " not found"));
+        return username -> userDetailsCache.get(username, email -> userRepository.findByEmailIgnoreCase(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + username + " not found")));
     }
 
     @Bean
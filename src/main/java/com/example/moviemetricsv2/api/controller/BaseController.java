@@ -1,32 +1,73 @@
 package com.example.moviemetricsv2.api.controller;
 
+import com.example.moviemetricsv2.api.exception.BadRequestException;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.InternalServerException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.exception.PermissionException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public class BaseController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<String> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+    protected int pageSize(Integer limit) {
+        if (limit == null || limit < 1)
+            return DEFAULT_PAGE_SIZE;
+
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Wraps one keyset page. A full page means there may be more rows, so the cursor of its last element
+     * (its id, or an opaque string) is sent back in {@link #NEXT_CURSOR_HEADER} to be passed as {@code after}
+     * in the next call.
+     */
+    protected <T> ResponseEntity<List<T>> page(List<T> items, int pageSize, Function<T, ?> cursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+
+        if (items.size() == pageSize)
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(cursor.apply(items.get(items.size() - 1))));
+
+        return response.body(items);
+    }
+
+    /**
+     * Formats validation errors as one message per field, the shape every validation failure is reported in.
+     */
+    protected String fieldErrorsMessage(List<FieldError> fieldErrors) {
         Map<String, String> errors = new HashMap<>();
 
-        ex.getFieldErrors().forEach(error -> {
+        fieldErrors.forEach(error -> {
             if (!errors.containsKey(error.getField()))
                 errors.put(error.getField(), error.getDefaultMessage());
         });
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors.toString());
+        return errors.toString();
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(fieldErrorsMessage(ex.getFieldErrors()));
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleBadRequestException(BadRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
     @ExceptionHandler(PermissionException.class)
@@ -6,14 +6,14 @@ import org.springframework.http.ResponseEntity;
 
 import java.util.List;
 
-public interface ICrudController<T, TDto, TResponse> {
+public interface ICrudController<T, TDto, TPatchDto, TResponse> {
     ResponseEntity<TResponse> create(TDto dto) throws DataConflictException;
 
     ResponseEntity<TResponse> get(Long id) throws NotFoundException;
 
-    ResponseEntity<List<TResponse>> getAll();
+    ResponseEntity<List<TResponse>> getAll(Long after, Integer limit);
 
-    ResponseEntity<TResponse> update(Long id, TDto dto) throws DataConflictException, NotFoundException;
+    ResponseEntity<TResponse> update(Long id, TPatchDto dto) throws DataConflictException, NotFoundException;
 
     ResponseEntity<TResponse> delete(Long id) throws NotFoundException;
 }
@@ -1,35 +1,119 @@
 package com.example.moviemetricsv2.api.controller;
 
 import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.dto.MoviePatchDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.response.MovieImportResponse;
 import com.example.moviemetricsv2.api.response.MovieResponse;
 import com.example.moviemetricsv2.api.service.MovieService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.*;
 
 @RestController
 @RequestMapping("/api/movies")
 @RequiredArgsConstructor
-public class MovieController extends BaseController implements ICrudController<Movie, MovieDto, MovieResponse> {
+public class MovieController extends BaseController implements ICrudController<Movie, MovieDto, MoviePatchDto, MovieResponse> {
+    public static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final MovieService movieService;
+    private final ObjectMapper objectMapper;
+    private final SpringValidatorAdapter validator;
 
     @Override
     @PreAuthorize("hasAuthority('CREATE_MOVIES')")
+    @SqlBudget(5)
     @PostMapping
     public ResponseEntity<MovieResponse> create(@Valid @RequestBody MovieDto movieDto) throws DataConflictException {
         return ResponseEntity.status(HttpStatus.CREATED).body(new MovieResponse(movieService.create(movieDto)));
     }
 
+    @PreAuthorize("hasAuthority('CREATE_MOVIES')")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<MovieImportResponse>> createAll(HttpServletRequest request) throws IOException {
+        List<MovieImportResponse> results = new ArrayList<>();
+        Map<Integer, MovieDto> chunk = new LinkedHashMap<>();
+        int index = 0;
+
+        // Reading a JSON array or NDJSON lazily keeps only one chunk of movies in memory at a time
+        try (MappingIterator<MovieDto> movieDtos = objectMapper.readerFor(MovieDto.class).readValues(request.getInputStream())) {
+            while (movieDtos.hasNextValue()) {
+                MovieDto movieDto = movieDtos.nextValue();
+                BindingResult errors = new BeanPropertyBindingResult(movieDto, "movieDto");
+
+                // Binding the violations like @Valid does reports a bad row in the same shape as POST /api/movies
+                validator.validate(movieDto, errors);
+
+                if (!errors.hasErrors())
+                    chunk.put(index, movieDto);
+                else
+                    results.add(MovieImportResponse.failed(index, movieDto.getTitle(), HttpStatus.BAD_REQUEST, fieldErrorsMessage(errors.getFieldErrors())));
+
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    results.addAll(createChunk(chunk));
+                    chunk.clear();
+                }
+
+                index++;
+            }
+        } catch (JsonProcessingException ex) {
+            // Nothing after a malformed row can be read reliably, but the rows before it are still imported and
+            // reported, since earlier chunks may already be committed
+            results.add(MovieImportResponse.failed(index, null, HttpStatus.BAD_REQUEST, ex.getOriginalMessage()));
+        }
+
+        if (!chunk.isEmpty())
+            results.addAll(createChunk(chunk));
+
+        results.sort(Comparator.comparing(MovieImportResponse::getIndex));
+
+        // Only a body that is malformed from its first row fails as a whole
+        HttpStatus status = index == 0 && !results.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+
+        return ResponseEntity.status(status).body(results);
+    }
+
+    // Rows that passed the checks can still be rejected by the database, e.g. a title taken by a concurrent
+    // import; the chunk is then retried row by row, so only those rows fail and the import goes on
+    private List<MovieImportResponse> createChunk(Map<Integer, MovieDto> chunk) {
+        try {
+            return movieService.createAll(chunk);
+        } catch (DataIntegrityViolationException ex) {
+            List<MovieImportResponse> results = new ArrayList<>();
+
+            chunk.forEach((index, movieDto) -> {
+                try {
+                    results.addAll(movieService.createAll(Map.of(index, movieDto)));
+                } catch (DataIntegrityViolationException rowEx) {
+                    results.add(MovieImportResponse.failed(index, movieDto.getTitle(), HttpStatus.CONFLICT,
+                            DataConflictException.movieConflict(movieDto.getTitle()).getMessage()));
+                }
+            });
+
+            return results;
+        }
+    }
+
     @Override
     @PreAuthorize("hasAuthority('DISPLAY_MOVIES')")
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<MovieResponse> get(@PathVariable Long id) throws NotFoundException {
         return ResponseEntity.status(HttpStatus.OK).body(new MovieResponse(movieService.get(id)));
@@ -37,20 +121,25 @@ public class MovieController extends BaseController implements ICrudController<M
 
     @Override
     @PreAuthorize("hasAuthority('DISPLAY_MOVIES')")
+    @SqlBudget(2)
     @GetMapping
-    public ResponseEntity<List<MovieResponse>> getAll() {
-        return ResponseEntity.status(HttpStatus.OK).body(movieService.getAll().stream().map(MovieResponse::new).toList());
+    public ResponseEntity<List<MovieResponse>> getAll(@RequestParam(defaultValue = "0") Long after,
+                                                      @RequestParam(required = false) Integer limit) {
+        int pageSize = pageSize(limit);
+        return page(movieService.getPage(after, pageSize).stream().map(MovieResponse::new).toList(), pageSize, MovieResponse::getId);
     }
 
     @Override
     @PreAuthorize("hasAuthority('UPDATE_MOVIES')")
+    @SqlBudget(5)
     @PatchMapping("/{id}")
-    public ResponseEntity<MovieResponse> update(@PathVariable Long id, @Valid @RequestBody MovieDto movieDto) throws DataConflictException, NotFoundException {
-        return ResponseEntity.status(HttpStatus.OK).body(new MovieResponse(movieService.update(id, movieDto)));
+    public ResponseEntity<MovieResponse> update(@PathVariable Long id, @Valid @RequestBody MoviePatchDto moviePatchDto) throws DataConflictException, NotFoundException {
+        return ResponseEntity.status(HttpStatus.OK).body(new MovieResponse(movieService.update(id, moviePatchDto)));
     }
 
     @Override
     @PreAuthorize("hasAuthority('DELETE_MOVIES')")
+    @SqlBudget(4)
     @DeleteMapping("/{id}")
     public ResponseEntity<MovieResponse> delete(@PathVariable Long id) throws NotFoundException {
         return ResponseEntity.status(HttpStatus.OK).body(new MovieResponse(movieService.delete(id)));
@@ -5,6 +5,7 @@ import com.example.moviemetricsv2.api.dto.ReviewDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.exception.PermissionException;
+import com.example.moviemetricsv2.api.model.EReviewSort;
 import com.example.moviemetricsv2.api.model.Movie;
 import com.example.moviemetricsv2.api.model.Review;
 import com.example.moviemetricsv2.api.model.User;
@@ -29,6 +30,7 @@ public class ReviewController extends BaseController {
     private final ReviewService reviewService;
 
     @PreAuthorize("hasAuthority('CREATE_REVIEWS')")
+    @SqlBudget(3)
     @PostMapping("/of/{movieId}")
     public ResponseEntity<ReviewResponse> create(@PathVariable Long movieId, @Valid @RequestBody ReviewDto reviewDto)
             throws DataConflictException {
@@ -37,26 +39,49 @@ public class ReviewController extends BaseController {
     }
 
     @PreAuthorize("hasAuthority('DISPLAY_REVIEWS')")
+    @SqlBudget(1)
     @GetMapping("/own")
-    public ResponseEntity<List<ReviewResponse>> getAllFromMe() {
+    public ResponseEntity<List<ReviewResponse>> getAllFromMe(
+            @RequestParam(defaultValue = "Id") EReviewSort sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        int pageSize = pageSize(limit);
 
-        return ResponseEntity.status(HttpStatus.OK).body(reviewService.getAllOfUser(user.getId()).stream().map(ReviewResponse::new).toList());
+        return page(reviewService.getOwnPage(user.getId(), sort, after, pageSize).stream().map(ReviewResponse::new).toList(),
+                pageSize, review -> ReviewService.cursorOf(sort, review.getId(), review.getScore()));
     }
 
     @PreAuthorize("hasAuthority('DISPLAY_REVIEWS')")
+    @SqlBudget(3)
     @GetMapping("/from/{userId}")
-    public ResponseEntity<List<ReviewResponse>> getAllFromUser(@PathVariable Long userId) throws NotFoundException {
-        return ResponseEntity.status(HttpStatus.OK).body(reviewService.getAllOfUser(userId).stream().map(ReviewResponse::new).toList());
+    public ResponseEntity<List<ReviewResponse>> getAllFromUser(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "Id") EReviewSort sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) throws NotFoundException {
+        int pageSize = pageSize(limit);
+
+        return page(reviewService.getPageOfUser(userId, sort, after, pageSize).stream().map(ReviewResponse::new).toList(),
+                pageSize, review -> ReviewService.cursorOf(sort, review.getId(), review.getScore()));
     }
 
     @PreAuthorize("hasAuthority('DISPLAY_REVIEWS')")
+    @SqlBudget(3)
     @GetMapping("/of/{movieId}")
-    public ResponseEntity<List<ReviewResponse>> getAllOfMovie(@PathVariable Long movieId) throws NotFoundException {
-        return ResponseEntity.status(HttpStatus.OK).body(reviewService.getAllOfMovie(movieId).stream().map(ReviewResponse::new).toList());
+    public ResponseEntity<List<ReviewResponse>> getAllOfMovie(
+            @PathVariable Long movieId,
+            @RequestParam(defaultValue = "Id") EReviewSort sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) throws NotFoundException {
+        int pageSize = pageSize(limit);
+
+        return page(reviewService.getPageOfMovie(movieId, sort, after, pageSize).stream().map(ReviewResponse::new).toList(),
+                pageSize, review -> ReviewService.cursorOf(sort, review.getId(), review.getScore()));
     }
 
     @PreAuthorize("hasAuthority('UPDATE_OWN_REVIEWS')")
+    @SqlBudget(3)
     @PatchMapping("/own/{id}")
     public ResponseEntity<ReviewResponse> updateOwn(@PathVariable Long id, @Valid @RequestBody ReviewDto reviewDto)
             throws NotFoundException, PermissionException {
@@ -64,6 +89,7 @@ public class ReviewController extends BaseController {
     }
 
     @PreAuthorize("hasAuthority('UPDATE_REVIEWS')")
+    @SqlBudget(3)
     @PatchMapping("/{id}")
     public ResponseEntity<ReviewResponse> update(@PathVariable Long id, @Valid @RequestBody ReviewDto reviewDto)
             throws NotFoundException {
@@ -71,12 +97,14 @@ public class ReviewController extends BaseController {
     }
 
     @PreAuthorize("hasAuthority('DELETE_OWN_REVIEWS')")
+    @SqlBudget(3)
     @DeleteMapping("/own/{id}")
     public ResponseEntity<ReviewResponse> deleteOwn(@PathVariable Long id) throws NotFoundException, PermissionException {
         return ResponseEntity.status(HttpStatus.OK).body(new ReviewResponse(reviewService.deleteOwn(id)));
     }
 
     @PreAuthorize("hasAuthority('DELETE_REVIEWS')")
+    @SqlBudget(3)
     @DeleteMapping("/{id}")
     public ResponseEntity<ReviewResponse> delete(@PathVariable Long id) throws NotFoundException {
         return ResponseEntity.status(HttpStatus.OK).body(new ReviewResponse(reviewService.delete(id)));
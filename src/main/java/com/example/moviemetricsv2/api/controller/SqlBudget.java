@@ -0,0 +1,16 @@
+package com.example.moviemetricsv2.api.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements the annotated controller method may execute, authentication excluded.
+ * Exceeding it is logged and counted, and fails the request when {@code sql.budget.enforce} is set (as in tests).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+    int value();
+}
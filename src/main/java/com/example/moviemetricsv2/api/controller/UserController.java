@@ -1,6 +1,7 @@
 package com.example.moviemetricsv2.api.controller;
 
 import com.example.moviemetricsv2.api.dto.UserDto;
+import com.example.moviemetricsv2.api.dto.UserPatchDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.User;
@@ -18,11 +19,12 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
-public class UserController extends BaseController implements ICrudController<User, UserDto, UserResponse> {
+public class UserController extends BaseController implements ICrudController<User, UserDto, UserPatchDto, UserResponse> {
     private final UserService userService;
 
     @Override
     @PreAuthorize("hasAuthority('CREATE_USERS')")
+    @SqlBudget(4)
     @PostMapping
     public ResponseEntity<UserResponse> create(@Valid @RequestBody UserDto userDto)
             throws DataConflictException {
@@ -31,13 +33,17 @@ public class UserController extends BaseController implements ICrudController<Us
 
     @Override
     @PreAuthorize("hasAuthority('DISPLAY_USERS')")
+    @SqlBudget(1)
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAll() {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.getAll().stream().map(UserResponse::new).toList());
+    public ResponseEntity<List<UserResponse>> getAll(@RequestParam(defaultValue = "0") Long after,
+                                                     @RequestParam(required = false) Integer limit) {
+        int pageSize = pageSize(limit);
+        return page(userService.getPage(after, pageSize).stream().map(UserResponse::new).toList(), pageSize, UserResponse::getId);
     }
 
     @Override
     @PreAuthorize("hasAuthority('DISPLAY_USERS')")
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> get(@PathVariable Long id)
             throws NotFoundException {
@@ -46,14 +52,16 @@ public class UserController extends BaseController implements ICrudController<Us
 
     @Override
     @PreAuthorize("hasAuthority('UPDATE_USERS')")
+    @SqlBudget(4)
     @PatchMapping("/{id}")
-    public ResponseEntity<UserResponse> update(@PathVariable Long id, @Valid @RequestBody UserDto userDto)
+    public ResponseEntity<UserResponse> update(@PathVariable Long id, @Valid @RequestBody UserPatchDto userPatchDto)
             throws NotFoundException, DataConflictException {
-        return ResponseEntity.status(HttpStatus.OK).body(new UserResponse(userService.update(id, userDto)));
+        return ResponseEntity.status(HttpStatus.OK).body(new UserResponse(userService.update(id, userPatchDto)));
     }
 
     @Override
     @PreAuthorize("hasAuthority('DELETE_USERS')")
+    @SqlBudget(3)
     @DeleteMapping("/{id}")
     public ResponseEntity<UserResponse> delete(@PathVariable Long id)
             throws NotFoundException {
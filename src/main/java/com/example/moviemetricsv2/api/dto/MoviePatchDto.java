@@ -0,0 +1,28 @@
+package com.example.moviemetricsv2.api.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+// Fields left null keep their current value
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class MoviePatchDto {
+    @Size(min = 3, message = "Title must be at least 3 characters long")
+    @Size(max = 64, message = "Title can be at most 64 characters long")
+    private String title;
+
+    @Size(min = 10, message = "Description must be at least 10 characters long")
+    @Size(max = 2048, message = "Description can be at most 2048 characters long")
+    private String description;
+
+    private List<Long> genreIds;
+
+    @Min(value = 1, message = "Classification Id must be valid")
+    private Long classificationId;
+}
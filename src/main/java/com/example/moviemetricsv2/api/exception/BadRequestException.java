@@ -0,0 +1,11 @@
+package com.example.moviemetricsv2.api.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public static BadRequestException invalidCursor(String cursor, String sort) {
+        return new BadRequestException("Cursor " + cursor + " is not a cursor of a listing sorted by " + sort);
+    }
+}
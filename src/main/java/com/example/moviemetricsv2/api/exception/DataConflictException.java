@@ -18,6 +18,10 @@ public class DataConflictException extends RuntimeException {
         return new DataConflictException("Title " + title + " is taken");
     }
 
+    public static DataConflictException movieConflict(String title) {
+        return new DataConflictException("Movie " + title + " conflicts with existing data");
+    }
+
     public static DataConflictException reviewExists(Long userId, Long movieId) {
         return new DataConflictException("Review from user with id " + userId + " of movie with id " + movieId + " already exists");
     }
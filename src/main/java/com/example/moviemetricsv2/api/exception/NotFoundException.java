@@ -1,5 +1,8 @@
 package com.example.moviemetricsv2.api.exception;
 
+import java.util.Collection;
+import java.util.stream.Collectors;
+
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
         super(message);
@@ -44,4 +47,11 @@ public class NotFoundException extends RuntimeException {
     public static NotFoundException genreNotFoundById(Long id) {
         return new NotFoundException("Genre with id " + id + " not found");
     }
+
+    public static NotFoundException genresNotFoundByIds(Collection<Long> ids) {
+        if (ids.size() == 1)
+            return genreNotFoundById(ids.iterator().next());
+
+        return new NotFoundException("Genres with ids " + ids.stream().map(String::valueOf).collect(Collectors.joining(", ")) + " not found");
+    }
 }
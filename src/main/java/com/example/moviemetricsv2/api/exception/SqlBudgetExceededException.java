@@ -0,0 +1,12 @@
+package com.example.moviemetricsv2.api.exception;
+
+public class SqlBudgetExceededException extends InternalServerException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+
+    public static SqlBudgetExceededException of(String method, long statements, int budget) {
+        return new SqlBudgetExceededException(method + " executed " + statements + " SQL statements, budget is " + budget);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.moviemetricsv2.api.filter;
 
 import com.example.moviemetricsv2.api.service.JwtService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -34,6 +35,7 @@ public class AuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
+        final Claims claims;
         final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer")) {
@@ -44,11 +46,14 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         try {
             jwt = authHeader.substring(7);
 
-            userEmail = jwtService.extractUsername(jwt);
+            claims = jwtService.parseToken(jwt);
+            userEmail = claims.getSubject();
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = jwtService.isStateless() && jwtService.hasPrincipalClaims(claims) ?
+                        jwtService.extractPrincipal(claims) :
+                        userDetailsService.loadUserByUsername(userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
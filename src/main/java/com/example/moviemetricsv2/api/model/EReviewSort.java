@@ -0,0 +1,11 @@
+package com.example.moviemetricsv2.api.model;
+
+/**
+ * Orders of the keyset-paginated review listings. {@code Recent} relies on ids being assigned in
+ * insertion order.
+ */
+public enum EReviewSort {
+    Id,
+    Score,
+    Recent
+}
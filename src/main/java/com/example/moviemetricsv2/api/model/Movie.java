@@ -1,10 +1,13 @@
 package com.example.moviemetricsv2.api.model;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Getter
@@ -13,9 +16,12 @@ import java.util.List;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Builder
 @Table(name = "movies")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movies")
+@DynamicUpdate
 public class Movie {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_id_seq")
+    @SequenceGenerator(name = "movies_id_seq", sequenceName = "movies_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 64)
@@ -24,18 +30,25 @@ public class Movie {
     @Column(length = 2048)
     private String description;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "movie_classification_id", nullable = false)
     private MovieClassification classification;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // A set, unlike a bag, lets Hibernate insert and delete single movie_genres rows instead of rewriting them all
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movie-genres")
+    @ManyToMany
+    @OrderBy("id")
     @JoinTable(
             name = "movie_genres",
-            joinColumns = @JoinColumn(name = "genre_id"),
-            inverseJoinColumns = @JoinColumn(name = "movie_id")
+            joinColumns = @JoinColumn(name = "movie_id"),
+            inverseJoinColumns = @JoinColumn(name = "genre_id")
     )
-    private List<Genre> genres;
+    private Set<Genre> genres;
 
     @OneToMany(mappedBy = "movie")
     private List<Review> reviews;
+
+    // Mapped from the stats side only and attached by IMovieRepository, see findWithDetailsById
+    @Transient
+    private MovieRatingStats ratingStats;
 }
@@ -3,6 +3,8 @@ package com.example.moviemetricsv2.api.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
@@ -13,6 +15,7 @@ import java.util.Set;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Builder
 @Table(name = "movie_classifications")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movie-classifications")
 public class MovieClassification {
     @Id
     private Long id;
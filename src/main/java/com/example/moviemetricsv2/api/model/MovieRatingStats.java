@@ -0,0 +1,75 @@
+package com.example.moviemetricsv2.api.model;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Table(name = "movie_rating_stats")
+public class MovieRatingStats {
+    // reviews.score is NUMERIC(1), so the histogram has a bucket for every score from 1 to 9
+    public static final int MAX_SCORE = 9;
+
+    @Id
+    private Long movieId;
+
+    @MapsId
+    @JsonBackReference
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "movie_id")
+    private Movie movie;
+
+    @Column(nullable = false)
+    private Long reviewCount;
+
+    @Column(nullable = false)
+    private Long scoreSum;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private long[] histogram;
+
+    public static MovieRatingStats of(Movie movie) {
+        return MovieRatingStats.builder()
+                .movie(movie)
+                .reviewCount(0L)
+                .scoreSum(0L)
+                .histogram(new long[MAX_SCORE])
+                .build();
+    }
+
+    public Double getAverageScore() {
+        return reviewCount == 0 ? null : (double) scoreSum / reviewCount;
+    }
+
+    public void add(short score) {
+        reviewCount++;
+        scoreSum += score;
+        histogram = withBucketChanged(score, 1);
+    }
+
+    public void remove(short score) {
+        reviewCount--;
+        scoreSum -= score;
+        histogram = withBucketChanged(score, -1);
+    }
+
+    public void replace(short oldScore, short newScore) {
+        remove(oldScore);
+        add(newScore);
+    }
+
+    // A new array is assigned instead of mutating in place, so Hibernate always sees the change
+    private long[] withBucketChanged(short score, int delta) {
+        long[] changed = histogram.clone();
+        changed[score - 1] += delta;
+        return changed;
+    }
+}
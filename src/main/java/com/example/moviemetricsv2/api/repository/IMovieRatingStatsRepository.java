@@ -0,0 +1,7 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IMovieRatingStatsRepository extends JpaRepository<MovieRatingStats, Long>, IMovieRatingStatsRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
+
+import java.util.Optional;
+
+public interface IMovieRatingStatsRepositoryCustom {
+    Optional<MovieRatingStats> findByMovieIdForUpdate(Long movieId);
+}
@@ -0,0 +1,28 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+
+import java.util.Optional;
+
+public class IMovieRatingStatsRepositoryCustomImpl implements IMovieRatingStatsRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<MovieRatingStats> findByMovieIdForUpdate(Long movieId) {
+        MovieRatingStats stats = entityManager.getReference(MovieRatingStats.class, movieId);
+
+        // Stats already loaded in this transaction would not be reloaded by a locking query, so those are refreshed;
+        // otherwise the locking query is the only select
+        if (!Hibernate.isInitialized(stats))
+            return Optional.ofNullable(entityManager.find(MovieRatingStats.class, movieId, LockModeType.PESSIMISTIC_WRITE));
+
+        entityManager.refresh(stats, LockModeType.PESSIMISTIC_WRITE);
+
+        return Optional.of(stats);
+    }
+}
@@ -1,12 +1,57 @@
 package com.example.moviemetricsv2.api.repository;
 
 import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.*;
 
 public interface IMovieRepository extends JpaRepository<Movie, Long> {
     Optional<Movie> findByTitleIgnoreCase(String title);
 
     boolean existsByTitleIgnoreCase(String title);
-}
\ No newline at end of file
+
+    @Query("select upper(m.title) from Movie m where upper(m.title) in :titles")
+    List<String> findTakenTitles(@Param("titles") Collection<String> upperCaseTitles);
+
+    @Query("select m.id from Movie m where m.id > :after order by m.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    // Movie detail: everything MovieResponse reads
+    default Optional<Movie> findWithDetailsById(Long id) {
+        return withRatingStats(findWithGenresAndRatingStatsById(id)).stream().findFirst();
+    }
+
+    default List<Movie> findAllWithGenresByIdIn(Collection<Long> ids) {
+        return withRatingStats(findAllWithGenresAndRatingStatsByIdIn(ids));
+    }
+
+    // The stats are only mapped from their own side and joined here, since an inverse @OneToOne on Movie
+    // would be fetched eagerly with every movie Hibernate loads
+    @Query("""
+            select m, s from Movie m left join fetch m.genres left join MovieRatingStats s on s.movieId = m.id
+            where m.id = :id""")
+    List<Object[]> findWithGenresAndRatingStatsById(@Param("id") Long id);
+
+    @Query("""
+            select m, s from Movie m left join fetch m.genres left join MovieRatingStats s on s.movieId = m.id
+            where m.id in :ids order by m.id""")
+    List<Object[]> findAllWithGenresAndRatingStatsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Fetching genres repeats each movie once per genre
+    private static List<Movie> withRatingStats(List<Object[]> rows) {
+        Map<Long, Movie> movies = new LinkedHashMap<>();
+
+        for (Object[] row : rows)
+            movies.computeIfAbsent(((Movie) row[0]).getId(), id -> {
+                Movie movie = (Movie) row[0];
+                movie.setRatingStats((MovieRatingStats) row[1]);
+                return movie;
+            });
+
+        return new ArrayList<>(movies.values());
+    }
+}
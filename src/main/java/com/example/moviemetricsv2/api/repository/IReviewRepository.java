@@ -1,15 +1,29 @@
 package com.example.moviemetricsv2.api.repository;
 
-import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
-import java.util.Optional;
 
-public interface IReviewRepository extends JpaRepository<Review, Long> {
-    boolean existsByMovieIdAndAuthorId(Long movieId, Long authorId);
+public interface IReviewRepository extends JpaRepository<Review, Long>, IReviewRepositoryCustom {
+    List<Review> findAllByMovieIdAndIdGreaterThanOrderByIdAsc(Long movieId, Long after, Limit limit);
+    List<Review> findAllByMovieIdAndIdLessThanOrderByIdDesc(Long movieId, Long before, Limit limit);
 
-    List<Review> findAllByMovieId(Long movieId);
-    List<Review> findAllByAuthorId(Long authorId);
+    @Query("select r from Review r where r.movie.id = :movieId " +
+            "and (r.score < :score or (r.score = :score and r.id < :before)) " +
+            "order by r.score desc, r.id desc")
+    List<Review> findScorePageOfMovie(@Param("movieId") Long movieId, @Param("score") Short score,
+                                      @Param("before") Long before, Limit limit);
+
+    List<Review> findAllByAuthorIdAndIdGreaterThanOrderByIdAsc(Long authorId, Long after, Limit limit);
+    List<Review> findAllByAuthorIdAndIdLessThanOrderByIdDesc(Long authorId, Long before, Limit limit);
+
+    @Query("select r from Review r where r.author.id = :authorId " +
+            "and (r.score < :score or (r.score = :score and r.id < :before)) " +
+            "order by r.score desc, r.id desc")
+    List<Review> findScorePageOfAuthor(@Param("authorId") Long authorId, @Param("score") Short score,
+                                       @Param("before") Long before, Limit limit);
 }
@@ -0,0 +1,18 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.Review;
+
+import java.util.Optional;
+
+public interface IReviewRepositoryCustom {
+    // Empty when the author already reviewed the movie; a missing movie fails on its foreign key
+    Optional<Long> insertIfAbsent(Long movieId, Long authorId, Short score, String content);
+
+    // Both return the review as it was before the statement, or empty when the author has no review with that id
+    Optional<Review> updateOfAuthor(Long id, Long authorId, Short score, String content);
+    Optional<Review> deleteOfAuthor(Long id, Long authorId);
+
+    // The same, for any author
+    Optional<Review> updateReturningPrevious(Long id, Short score, String content);
+    Optional<Review> deleteReturningPrevious(Long id);
+}
@@ -0,0 +1,136 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.model.Review;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+public class IReviewRepositoryCustomImpl implements IReviewRepositoryCustom {
+    private static final String INSERT = "insert into reviews (movie_id, author_id, score, content) values (?, ?, ?, ?)";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // Postgres locks the row and reads the previous score in a CTE, since "returning" only sees the new values;
+    // H2 reads the previous row from the statement's OLD TABLE delta instead. %s takes the optional author check.
+    private static final String POSTGRES_UPDATE = "with old as (select movie_id, score, content from reviews " +
+            "where id = :id%s for update) " +
+            "update reviews r set score = :score, content = :content from old where r.id = :id " +
+            "returning old.movie_id, old.score, old.content";
+    private static final String UPDATE = "select movie_id, score, content from old table (" +
+            "update reviews set score = :score, content = :content where id = :id%s)";
+    private static final String POSTGRES_DELETE = "delete from reviews where id = :id%s returning movie_id, score, content";
+    private static final String DELETE = "select movie_id, score, content from old table (delete from reviews where id = :id%s)";
+    private static final String OF_AUTHOR = " and author_id = :authorId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Long> insertIfAbsent(Long movieId, Long authorId, Short score, String content) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+
+        // Postgres skips a duplicate instead of failing, which would also abort the transaction; the generated
+        // keys become "returning id", so the insert and the conflict check are a single round trip
+        String sql = insertSql(isPostgres());
+
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(sql, new String[] {"id"});
+        try {
+            statement.setLong(1, movieId);
+            statement.setLong(2, authorId);
+            statement.setShort(3, score);
+            statement.setString(4, content);
+
+            jdbcCoordinator.getResultSetReturn().executeUpdate(statement, sql);
+
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                return keys.next() ? Optional.of(keys.getLong(1)) : Optional.empty();
+            }
+        } catch (ConstraintViolationException ex) {
+            if (UNIQUE_VIOLATION.equals(ex.getSQLState()))
+                return Optional.empty();
+
+            throw ex;
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "could not insert review", sql);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+
+    @Override
+    public Optional<Review> updateOfAuthor(Long id, Long authorId, Short score, String content) {
+        return update(id, authorId, score, content);
+    }
+
+    @Override
+    public Optional<Review> updateReturningPrevious(Long id, Short score, String content) {
+        return update(id, null, score, content);
+    }
+
+    @Override
+    public Optional<Review> deleteOfAuthor(Long id, Long authorId) {
+        return previousReview(id, statement(deleteSql(isPostgres(), true), id, authorId));
+    }
+
+    @Override
+    public Optional<Review> deleteReturningPrevious(Long id) {
+        return previousReview(id, statement(deleteSql(isPostgres(), false), id, null));
+    }
+
+    // The statements are picked here rather than inline, so tests on H2 can check the PostgreSQL ones as well
+    static String insertSql(boolean postgres) {
+        return postgres ? INSERT + " on conflict (movie_id, author_id) do nothing" : INSERT;
+    }
+
+    static String updateSql(boolean postgres, boolean ofAuthor) {
+        return (postgres ? POSTGRES_UPDATE : UPDATE).formatted(ofAuthor ? OF_AUTHOR : "");
+    }
+
+    static String deleteSql(boolean postgres, boolean ofAuthor) {
+        return (postgres ? POSTGRES_DELETE : DELETE).formatted(ofAuthor ? OF_AUTHOR : "");
+    }
+
+    private Optional<Review> update(Long id, Long authorId, Short score, String content) {
+        return previousReview(id, statement(updateSql(isPostgres(), authorId != null), id, authorId)
+                .setParameter("score", score)
+                .setParameter("content", content, StandardBasicTypes.STRING));
+    }
+
+    private boolean isPostgres() {
+        return entityManager.unwrap(SessionImplementor.class).getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // Run as a query, since the statement returns rows; reviews are not in the second-level cache, so nothing is evicted
+    private NativeQuery<?> statement(String sql, Long id, Long authorId) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Review.class)
+                .setParameter("id", id);
+
+        return authorId == null ? query : query.setParameter("authorId", authorId);
+    }
+
+    private Optional<Review> previousReview(Long id, NativeQuery<?> query) {
+        return query.getResultList().stream()
+                .map(Object[].class::cast)
+                .map(row -> Review.builder()
+                        .id(id)
+                        .movie(entityManager.getReference(Movie.class, ((Number) row[0]).longValue()))
+                        .score(((Number) row[1]).shortValue())
+                        .content((String) row[2])
+                        .build())
+                .findFirst();
+    }
+}
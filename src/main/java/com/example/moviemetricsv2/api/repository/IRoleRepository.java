@@ -1,12 +1,20 @@
 package com.example.moviemetricsv2.api.repository;
 
 import com.example.moviemetricsv2.api.model.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface IRoleRepository extends JpaRepository<Role, Long> {
 
+    // Roles are cached and handed to users as authorities, so they are always loaded with their permissions
+    @Override
+    @EntityGraph(attributePaths = "permissions")
+    List<Role> findAll();
+
+    @EntityGraph(attributePaths = "permissions")
     Optional<Role> findByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCase(String name);
@@ -1,17 +1,27 @@
 package com.example.moviemetricsv2.api.repository;
 
 import com.example.moviemetricsv2.api.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IUserRepository extends JpaRepository<User, Long> {
 
+    // Authentication: the role and its permissions become the user's authorities
+    @EntityGraph(attributePaths = {"role", "role.permissions"})
     Optional<User> findByEmailIgnoreCase(String email);
 
     boolean existsByEmailIgnoreCase(String email);
 
+    // UserResponse only reads the role name
+    @EntityGraph(attributePaths = "role")
+    Optional<User> findWithRoleById(Long id);
 
+    @EntityGraph(attributePaths = "role")
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
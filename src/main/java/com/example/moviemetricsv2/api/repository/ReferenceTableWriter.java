@@ -0,0 +1,62 @@
+package com.example.moviemetricsv2.api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts rows of the small reference tables, skipping rows whose key is already stored. Reference ids are
+ * assigned by the application, so saveAll would merge each row and select it first, and two instances seeding
+ * the same database at once would fail on the primary key.
+ */
+@Repository
+public class ReferenceTableWriter {
+    // Postgres skips a row that conflicts with any constraint; H2 has no "on conflict" outside its Postgres mode,
+    // so there the row is merged on its primary key, which writes back the same seeded values
+    private static final String POSTGRES_INSERT = "insert into %s (%s) values %s on conflict do nothing";
+    private static final String MERGE = "merge into %s (%s) values %s";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public void insertAllIfAbsent(String table, List<String> columns, List<List<Object>> rows) {
+        if (rows.isEmpty())
+            return;
+
+        String values = IntStream.range(0, rows.size())
+                .mapToObj(row -> IntStream.range(0, columns.size())
+                        .mapToObj(column -> ":" + parameter(row, column))
+                        .collect(Collectors.joining(", ", "(", ")")))
+                .collect(Collectors.joining(", "));
+
+        // One multi-row statement for the whole table, run through Hibernate so the statement counter sees it and
+        // the second-level cache regions of the table are invalidated
+        NativeQuery<?> query = entityManager.createNativeQuery(
+                        (isPostgres() ? POSTGRES_INSERT : MERGE).formatted(table, String.join(", ", columns), values))
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(table);
+
+        for (int row = 0; row < rows.size(); row++)
+            for (int column = 0; column < columns.size(); column++)
+                query.setParameter(parameter(row, column), rows.get(row).get(column));
+
+        query.executeUpdate();
+    }
+
+    private static String parameter(int row, int column) {
+        return "p" + row + "_" + column;
+    }
+
+    private boolean isPostgres() {
+        return entityManager.unwrap(SessionImplementor.class).getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.moviemetricsv2.api.response;
+
+import com.example.moviemetricsv2.api.model.Movie;
+import lombok.*;
+import org.springframework.http.HttpStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class MovieImportResponse {
+    private Integer index;
+    private Integer status;
+    private Long id;
+    private String title;
+    private String message;
+
+    public static MovieImportResponse created(int index, Movie movie) {
+        return MovieImportResponse.builder()
+                .index(index)
+                .status(HttpStatus.CREATED.value())
+                .id(movie.getId())
+                .title(movie.getTitle())
+                .build();
+    }
+
+    public static MovieImportResponse failed(int index, String title, HttpStatus status, String message) {
+        return MovieImportResponse.builder()
+                .index(index)
+                .status(status.value())
+                .title(title)
+                .message(message)
+                .build();
+    }
+}
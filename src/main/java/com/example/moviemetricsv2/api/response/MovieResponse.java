@@ -3,6 +3,7 @@ package com.example.moviemetricsv2.api.response;
 import com.example.moviemetricsv2.api.model.Genre;
 import com.example.moviemetricsv2.api.model.Movie;
 import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
 import com.example.moviemetricsv2.api.model.Review;
 import jakarta.persistence.*;
 import lombok.*;
@@ -17,11 +18,17 @@ public class MovieResponse {
     private String title;
     private String description;
     private String genres;
+    private Long reviewCount;
+    private Double averageScore;
 
     public MovieResponse(Movie movie) {
         id = movie.getId();
         title = movie.getTitle();
         description = movie.getDescription();
         genres = String.join(", ", movie.getGenres().stream().map(Genre::getName).toList());
+
+        MovieRatingStats ratingStats = movie.getRatingStats();
+        reviewCount = ratingStats == null ? 0L : ratingStats.getReviewCount();
+        averageScore = ratingStats == null ? null : ratingStats.getAverageScore();
     }
 }
@@ -11,6 +11,7 @@ import com.example.moviemetricsv2.api.repository.IUserRepository;
 import com.example.moviemetricsv2.api.request.AuthenticationRequest;
 import com.example.moviemetricsv2.api.request.RegisterRequest;
 import com.example.moviemetricsv2.api.response.AuthenticationResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
+@Timed(value = "moviemetrics.service", histogram = true)
 @RequiredArgsConstructor
 public class AuthenticationService {
     private final IUserRepository userRepository;
@@ -1,42 +1,71 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.cache.ReferenceCache;
+import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.Genre;
 import com.example.moviemetricsv2.api.model.MovieClassification;
 import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.model.Role;
 import com.example.moviemetricsv2.api.repository.IGenreRepository;
 import com.example.moviemetricsv2.api.repository.IPermissionRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
-@RequiredArgsConstructor
 public class GenreService {
     private final IGenreRepository genreRepository;
+    private final ReferenceTableWriter referenceTableWriter;
+    private final ReferenceCache<Genre> cache;
+
+    public GenreService(IGenreRepository genreRepository, ReferenceTableWriter referenceTableWriter) {
+        this.genreRepository = genreRepository;
+        this.referenceTableWriter = referenceTableWriter;
+        this.cache = new ReferenceCache<>(genreRepository::findAll, Genre::getId);
+    }
 
     public List<Genre> getAll() {
-        return genreRepository.findAll();
+        return cache.getAll();
+    }
+
+    public boolean exists(Long id) {
+        return cache.contains(id);
+    }
+
+    public List<Genre> getAllById(Collection<Long> ids) throws NotFoundException {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, Genre> found = new LinkedHashMap<>();
+
+        uniqueIds.forEach(id -> cache.get(id).ifPresent(genre -> found.put(id, genre)));
+
+        if (found.size() < uniqueIds.size()) {
+            // Only ids missing from the snapshot go to the database, in one query
+            Set<Long> missing = new LinkedHashSet<>(uniqueIds);
+            missing.removeAll(found.keySet());
+
+            genreRepository.findAllById(missing).forEach(genre -> {
+                found.put(genre.getId(), genre);
+                missing.remove(genre.getId());
+            });
+
+            if (!missing.isEmpty())
+                throw NotFoundException.genresNotFoundByIds(missing);
+
+            cache.invalidate();
+        }
+
+        return uniqueIds.stream().map(found::get).toList();
     }
 
-    public Genre findOrCreate(Long id, String name) {
-        return genreRepository.findByNameIgnoreCase(name).orElseGet(() -> genreRepository.save(
-                Genre.builder()
-                        .id(id)
-                        .name(name)
-                        .build()
-        ));
+    public void refreshCache() {
+        cache.refresh();
     }
 
-    public void createIfNotFound(Long id, String name) {
-        if (!genreRepository.existsByNameIgnoreCase(name))
-            genreRepository.save(
-                    Genre.builder()
-                            .id(id)
-                            .name(name)
-                            .build()
-            );
+    public List<Genre> createAllIfNotFound(List<Genre> genres) {
+        return cache.createAllIfNotFound(genres, Genre::getName, missing -> referenceTableWriter.insertAllIfAbsent(
+                "genres", List.of("id", "name"), missing.stream()
+                        .map(genre -> List.<Object>of(genre.getId(), genre.getName()))
+                        .toList()));
     }
 }
@@ -5,14 +5,14 @@ import com.example.moviemetricsv2.api.exception.NotFoundException;
 
 import java.util.List;
 
-public interface IObjectService<T, TDto> {
+public interface IObjectService<T, TDto, TPatchDto> {
     T create(TDto dto) throws DataConflictException;
 
     T get(Long id) throws NotFoundException;
 
     List<T> getAll();
 
-    T update(Long id, TDto dto) throws DataConflictException, NotFoundException;
+    T update(Long id, TPatchDto dto) throws DataConflictException, NotFoundException;
 
     T delete(Long id) throws NotFoundException;
 }
@@ -1,45 +1,115 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.model.Permission;
+import com.example.moviemetricsv2.api.model.Role;
+import com.example.moviemetricsv2.api.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
+@Timed(value = "moviemetrics.service", histogram = true)
 public class JwtService {
     final static String secret = "my_secret_key_that_is_long_enough";
+    final static String USER_ID_CLAIM = "uid";
+    final static String AUTHORITIES_CLAIM = "authorities";
 
+    // Both are immutable and thread-safe, so they are built once instead of on every request
+    private final SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
+    private final JwtParser parser = Jwts.parser()
+            .verifyWith(key)
+            .build();
+
+    // With jwt.stateless the filter trusts the id and authorities embedded in the token instead of
+    // loading the user on every request, so a deleted or demoted user keeps the old authorities until the
+    // token expires. Those tokens get their own, much shorter lifetime to keep that window small, and only
+    // they carry the principal claims, so turning the flag on never trusts a long-lived token
+    private final boolean stateless;
+    private final long expirationMillis;
+
+    public JwtService(Environment environment) {
+        this.stateless = environment.getProperty("jwt.stateless", Boolean.class, false);
+        this.expirationMillis = 1000L * 60 * (stateless ?
+                environment.getProperty("jwt.stateless_expiration_minutes", Long.class, 5L) :
+                environment.getProperty("jwt.expiration_minutes", Long.class, 120L));
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+
+        if (stateless) {
+            if (userDetails instanceof User user)
+                claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(AUTHORITIES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        }
+
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
+        long now = System.currentTimeMillis();
 
         return Jwts.builder()
                 .subject(userDetails.getUsername())
                 .claims(extraClaims)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 2)) // 2h
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMillis))
                 .signWith(key, Jwts.SIG.HS256)
                 .compact();
     }
 
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUsername(token);
+        return isTokenValid(parseToken(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String userName = claims.getSubject();
 
         return userName.equals(userDetails.getUsername());
     }
 
+    // A token issued for longer than the stateless lifetime, e.g. before the flag was turned on, is not trusted
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(USER_ID_CLAIM) != null && claims.get(AUTHORITIES_CLAIM) instanceof List
+                && claims.getIssuedAt() != null && claims.getExpiration() != null
+                && claims.getExpiration().getTime() - claims.getIssuedAt().getTime() <= expirationMillis;
+    }
+
+    /**
+     * Builds a detached user from the token alone; its role only carries the permissions granted at login.
+     */
+    public User extractPrincipal(Claims claims) {
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+
+        return User.builder()
+                .id(claims.get(USER_ID_CLAIM, Long.class))
+                .email(claims.getSubject())
+                .role(Role.builder()
+                        .permissions(authorities.stream()
+                                .map(authority -> Permission.builder().name(authority.toString()).build())
+                                .toList())
+                        .build())
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -50,13 +120,8 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private Claims parseToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
-
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
+    public Claims parseToken(String token) {
+        return parser.parseSignedClaims(token)
                 .getPayload();
     }
 }
@@ -1,41 +1,41 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.cache.ReferenceCache;
 import com.example.moviemetricsv2.api.model.MovieClassification;
 import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.repository.IMovieClassificationRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
-@RequiredArgsConstructor
 public class MovieClassificationService {
-    private final IMovieClassificationRepository movieClassificationRepository;
+    private final ReferenceTableWriter referenceTableWriter;
+    private final ReferenceCache<MovieClassification> cache;
+
+    public MovieClassificationService(IMovieClassificationRepository movieClassificationRepository, ReferenceTableWriter referenceTableWriter) {
+        this.referenceTableWriter = referenceTableWriter;
+        this.cache = new ReferenceCache<>(movieClassificationRepository::findAll, MovieClassification::getId);
+    }
 
     public List<MovieClassification> getAll() {
-        return movieClassificationRepository.findAll();
+        return cache.getAll();
+    }
+
+    public boolean exists(Long id) {
+        return cache.contains(id);
     }
-    public MovieClassification findOrCreate(Long id, String name, String brief) {
-        return movieClassificationRepository.findByNameIgnoreCase(name).orElseGet(() -> movieClassificationRepository.save(
-                MovieClassification.builder()
-                        .id(id)
-                        .name(name)
-                        .brief(brief)
-                        .build()
-        ));
+
+    public void refreshCache() {
+        cache.refresh();
     }
 
-    public void createIfNotFound(Long id, String name, String brief) {
-        if (!movieClassificationRepository.existsByNameIgnoreCase(name))
-            movieClassificationRepository.save(
-                    MovieClassification.builder()
-                            .id(id)
-                            .name(name)
-                            .brief(brief)
-                            .build()
-            );
+    public List<MovieClassification> createAllIfNotFound(List<MovieClassification> movieClassifications) {
+        return cache.createAllIfNotFound(movieClassifications, MovieClassification::getName, missing -> referenceTableWriter.insertAllIfAbsent(
+                "movie_classifications", List.of("id", "name", "brief"), missing.stream()
+                        .map(movieClassification -> List.<Object>of(
+                                movieClassification.getId(), movieClassification.getName(), movieClassification.getBrief()))
+                        .toList()));
     }
 }
-
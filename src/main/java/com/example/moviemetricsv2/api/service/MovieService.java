@@ -1,57 +1,125 @@
 package com.example.moviemetricsv2.api.service;
 
 import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.dto.MoviePatchDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.Genre;
 import com.example.moviemetricsv2.api.model.Movie;
 import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
 import com.example.moviemetricsv2.api.repository.IGenreRepository;
 import com.example.moviemetricsv2.api.repository.IMovieClassificationRepository;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
 import com.example.moviemetricsv2.api.repository.IMovieRepository;
+import com.example.moviemetricsv2.api.response.MovieImportResponse;
 import com.example.moviemetricsv2.api.response.MovieResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "moviemetrics.service", histogram = true)
 @RequiredArgsConstructor
-public class MovieService implements IObjectService<Movie, MovieDto> {
+public class MovieService implements IObjectService<Movie, MovieDto, MoviePatchDto> {
     private final IMovieRepository movieRepository;
     private final IMovieClassificationRepository movieClassificationRepository;
     private final IGenreRepository genreRepository;
+    private final IMovieRatingStatsRepository ratingStatsRepository;
+    private final MovieClassificationService movieClassificationService;
+    private final GenreService genreService;
 
     @Override
+    @Transactional
     public Movie create(MovieDto movieDto) throws DataConflictException, NotFoundException {
         if (movieRepository.existsByTitleIgnoreCase(movieDto.getTitle()))
             throw DataConflictException.titleTaken(movieDto.getTitle());
 
-        if (!movieClassificationRepository.existsById(movieDto.getClassificationId()))
+        if (!movieClassificationService.exists(movieDto.getClassificationId()))
             throw NotFoundException.movieClassificationNotFoundById(movieDto.getClassificationId());
 
-        List<Genre> genres = movieDto.getGenreIds().stream().map(genreId -> {
-            if (!genreRepository.existsById(genreId))
-                throw NotFoundException.genreNotFoundById(genreId);
-            else
-                return genreRepository.getReferenceById(genreId);
-        }).toList();
-
-        return movieRepository.save(
-                Movie.builder()
-                        .title(movieDto.getTitle())
-                        .description(movieDto.getDescription())
-                        .genres(genres)
-                        .classification(movieClassificationRepository.getReferenceById(movieDto.getClassificationId()))
-                        .build()
-        );
+        List<Genre> genres = getGenres(movieDto.getGenreIds());
+
+        Movie movie = Movie.builder()
+                .title(movieDto.getTitle())
+                .description(movieDto.getDescription())
+                .genres(new LinkedHashSet<>(genres))
+                .classification(movieClassificationRepository.getReferenceById(movieDto.getClassificationId()))
+                .build();
+        movie.setRatingStats(MovieRatingStats.of(movie));
+
+        movieRepository.save(movie);
+        ratingStatsRepository.save(movie.getRatingStats());
+
+        return movie;
+    }
+
+    /**
+     * Creates every importable movie of one chunk in a single transaction, so Hibernate can send the inserts
+     * in JDBC batches. Rows that cannot be imported are reported in the result instead of failing the chunk.
+     */
+    @Transactional
+    public List<MovieImportResponse> createAll(Map<Integer, MovieDto> movieDtos) {
+        Set<String> takenTitles = new HashSet<>(movieRepository.findTakenTitles(
+                movieDtos.values().stream().map(movieDto -> movieDto.getTitle().toUpperCase(Locale.ROOT)).toList()
+        ));
+
+        Map<Integer, MovieImportResponse> results = new TreeMap<>();
+        Map<Integer, Movie> movies = new LinkedHashMap<>();
+
+        movieDtos.forEach((index, movieDto) -> {
+            String upperCaseTitle = movieDto.getTitle().toUpperCase(Locale.ROOT);
+
+            if (takenTitles.contains(upperCaseTitle)) {
+                results.put(index, MovieImportResponse.failed(index, movieDto.getTitle(), HttpStatus.CONFLICT,
+                        DataConflictException.titleTaken(movieDto.getTitle()).getMessage()));
+                return;
+            }
+
+            if (!movieClassificationService.exists(movieDto.getClassificationId())) {
+                results.put(index, MovieImportResponse.failed(index, movieDto.getTitle(), HttpStatus.NOT_FOUND,
+                        NotFoundException.movieClassificationNotFoundById(movieDto.getClassificationId()).getMessage()));
+                return;
+            }
+
+            Set<Long> genreIds = new LinkedHashSet<>(movieDto.getGenreIds());
+            List<Long> missingGenreIds = genreIds.stream().filter(genreId -> !genreService.exists(genreId)).toList();
+
+            if (!missingGenreIds.isEmpty()) {
+                results.put(index, MovieImportResponse.failed(index, movieDto.getTitle(), HttpStatus.NOT_FOUND,
+                        NotFoundException.genresNotFoundByIds(missingGenreIds).getMessage()));
+                return;
+            }
+
+            Movie movie = Movie.builder()
+                    .title(movieDto.getTitle())
+                    .description(movieDto.getDescription())
+                    .genres(genreIds.stream().map(genreRepository::getReferenceById).collect(Collectors.toCollection(LinkedHashSet::new)))
+                    .classification(movieClassificationRepository.getReferenceById(movieDto.getClassificationId()))
+                    .build();
+            movie.setRatingStats(MovieRatingStats.of(movie));
+
+            movies.put(index, movie);
+            // Only a row that is actually imported claims its title for the rest of the chunk
+            takenTitles.add(upperCaseTitle);
+        });
+
+        movieRepository.saveAll(movies.values());
+        ratingStatsRepository.saveAll(movies.values().stream().map(Movie::getRatingStats).toList());
+        movies.forEach((index, movie) -> results.put(index, MovieImportResponse.created(index, movie)));
+
+        return new ArrayList<>(results.values());
     }
 
     @Override
     public Movie get(Long id) throws NotFoundException {
-        return movieRepository.findById(id)
+        return movieRepository.findWithDetailsById(id)
                 .orElseThrow(() -> NotFoundException.movieNotFoundById(id));
     }
 
@@ -65,44 +133,68 @@ public class MovieService implements IObjectService<Movie, MovieDto> {
         return movieRepository.findAll();
     }
 
+    public List<Movie> getPage(Long after, int limit) {
+        // Paging over ids first keeps the limit in SQL; fetch joining genres in the same query would page in memory
+        List<Long> ids = movieRepository.findIdsAfter(after, Limit.of(limit));
+
+        if (ids.isEmpty())
+            return List.of();
+
+        return movieRepository.findAllWithGenresByIdIn(ids);
+    }
+
     @Override
-    public Movie update(Long id, MovieDto movieDto) throws DataConflictException, NotFoundException {
-        if (!movieRepository.existsById(id))
-            throw NotFoundException.movieNotFoundById(id);
+    @Transactional
+    public Movie update(Long id, MoviePatchDto moviePatchDto) throws DataConflictException, NotFoundException {
+        Movie movie = movieRepository.findWithDetailsById(id)
+                .orElseThrow(() -> NotFoundException.movieNotFoundById(id));
 
-        Optional<Movie> found = movieRepository.findByTitleIgnoreCase(movieDto.getTitle());
+        // The loaded movie stays managed, so dirty checking writes only the columns and genre rows that changed
+        if (moviePatchDto.getTitle() != null) {
+            if (!moviePatchDto.getTitle().equalsIgnoreCase(movie.getTitle())
+                    && movieRepository.existsByTitleIgnoreCase(moviePatchDto.getTitle()))
+                throw DataConflictException.titleTaken(moviePatchDto.getTitle());
 
-        if (found.isPresent() && !found.get().getId().equals(id))
-            throw DataConflictException.titleTaken(movieDto.getTitle());
+            movie.setTitle(moviePatchDto.getTitle());
+        }
 
-        if (!movieClassificationRepository.existsById(movieDto.getClassificationId()))
-            throw NotFoundException.movieClassificationNotFoundById(movieDto.getClassificationId());
+        if (moviePatchDto.getDescription() != null)
+            movie.setDescription(moviePatchDto.getDescription());
+
+        if (moviePatchDto.getClassificationId() != null
+                && !moviePatchDto.getClassificationId().equals(movie.getClassification().getId())) {
+            if (!movieClassificationService.exists(moviePatchDto.getClassificationId()))
+                throw NotFoundException.movieClassificationNotFoundById(moviePatchDto.getClassificationId());
+
+            movie.setClassification(movieClassificationRepository.getReferenceById(moviePatchDto.getClassificationId()));
+        }
+
+        if (moviePatchDto.getGenreIds() != null) {
+            Set<Long> addedGenreIds = new LinkedHashSet<>(moviePatchDto.getGenreIds());
 
-        List<Genre> genres = movieDto.getGenreIds().stream().map(genreId -> {
-            if (!genreRepository.existsById(genreId))
-                throw NotFoundException.genreNotFoundById(genreId);
-            else
-                return genreRepository.getReferenceById(genreId);
-        }).toList();
-
-        return movieRepository.save(
-                Movie.builder()
-                        .id(id)
-                        .title(movieDto.getTitle())
-                        .description(movieDto.getDescription())
-                        .genres(genres)
-                        .classification(movieClassificationRepository.getReferenceById(movieDto.getClassificationId()))
-                        .build()
-        );
+            movie.getGenres().removeIf(genre -> !addedGenreIds.remove(genre.getId()));
+            movie.getGenres().addAll(getGenres(addedGenreIds));
+        }
+
+        return movie;
     }
 
     @Override
+    @Transactional
     public Movie delete(Long id) throws NotFoundException {
-        Movie found = movieRepository.findById(id)
+        Movie found = movieRepository.findWithDetailsById(id)
                 .orElseThrow(() -> NotFoundException.movieNotFoundById(id));
 
+        if (found.getRatingStats() != null)
+            ratingStatsRepository.delete(found.getRatingStats());
+
         movieRepository.deleteById(id);
 
         return found;
     }
+
+    // The cached genres are fully loaded, so responses can read them after the transaction has ended
+    private List<Genre> getGenres(Collection<Long> genreIds) throws NotFoundException {
+        return new ArrayList<>(genreService.getAllById(genreIds));
+    }
 }
@@ -1,40 +1,41 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.cache.ReferenceCache;
 import com.example.moviemetricsv2.api.model.MovieClassification;
 import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.model.Role;
 import com.example.moviemetricsv2.api.repository.IPermissionRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
-@RequiredArgsConstructor
 public class PermissionService {
-    private final IPermissionRepository permissionRepository;
+    private final ReferenceTableWriter referenceTableWriter;
+    private final ReferenceCache<Permission> cache;
+
+    public PermissionService(IPermissionRepository permissionRepository, ReferenceTableWriter referenceTableWriter) {
+        this.referenceTableWriter = referenceTableWriter;
+        this.cache = new ReferenceCache<>(permissionRepository::findAll, Permission::getId);
+    }
 
     public List<Permission> getAll() {
-        return permissionRepository.findAll();
+        return cache.getAll();
+    }
+
+    public boolean exists(Long id) {
+        return cache.contains(id);
     }
 
-    public Permission findOrCreate(Long id, String name) {
-        return permissionRepository.findByNameIgnoreCase(name).orElseGet(() -> permissionRepository.save(
-                Permission.builder()
-                        .id(id)
-                        .name(name)
-                        .build()
-        ));
+    public void refreshCache() {
+        cache.refresh();
     }
 
-    public void createIfNotFound(Long id, String name) {
-        if (!permissionRepository.existsByNameIgnoreCase(name))
-            permissionRepository.save(
-                    Permission.builder()
-                            .id(id)
-                            .name(name)
-                            .build()
-            );
+    public List<Permission> createAllIfNotFound(List<Permission> permissions) {
+        return cache.createAllIfNotFound(permissions, Permission::getName, missing -> referenceTableWriter.insertAllIfAbsent(
+                "permissions", List.of("id", "name"), missing.stream()
+                        .map(permission -> List.<Object>of(permission.getId(), permission.getName()))
+                        .toList()));
     }
 }
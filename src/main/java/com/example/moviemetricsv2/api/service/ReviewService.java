@@ -1,53 +1,75 @@
 package com.example.moviemetricsv2.api.service;
 
-import com.example.moviemetricsv2.api.dto.MovieDto;
 import com.example.moviemetricsv2.api.dto.ReviewDto;
+import com.example.moviemetricsv2.api.exception.BadRequestException;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
-import com.example.moviemetricsv2.api.exception.InternalServerException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.exception.PermissionException;
-import com.example.moviemetricsv2.api.model.Movie;
-import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.EReviewSort;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
 import com.example.moviemetricsv2.api.model.Review;
 import com.example.moviemetricsv2.api.model.User;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
 import com.example.moviemetricsv2.api.repository.IMovieRepository;
 import com.example.moviemetricsv2.api.repository.IReviewRepository;
 import com.example.moviemetricsv2.api.repository.IUserRepository;
-import com.example.moviemetricsv2.api.response.ReviewResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.aspectj.weaver.ast.Not;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "moviemetrics.service", histogram = true)
 @RequiredArgsConstructor
-public class ReviewService implements IObjectService<Review, ReviewDto>{
+public class ReviewService implements IObjectService<Review, ReviewDto, ReviewDto> {
+    // A missing parent row is 23503 on Postgres and 23506 on H2
+    private static final Set<String> FOREIGN_KEY_VIOLATIONS = Set.of("23503", "23506");
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
     private final IReviewRepository reviewRepository;
     private final IMovieRepository movieRepository;
     private final IUserRepository userRepository;
+    private final IMovieRatingStatsRepository ratingStatsRepository;
 
-    public Review create(ReviewDto reviewDto) throws DataConflictException {
+    @Transactional
+    public Review create(ReviewDto reviewDto) throws DataConflictException, NotFoundException {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        if (!movieRepository.existsById(reviewDto.getMovieId()))
-            throw NotFoundException.movieNotFoundById(reviewDto.getMovieId());
+        Long id;
 
-        if (reviewRepository.existsByMovieIdAndAuthorId(reviewDto.getMovieId(), user.getId()))
-            throw DataConflictException.reviewExists(user.getId(), reviewDto.getMovieId());
+        // One insert that the unique (movie_id, author_id) constraint decides, so two concurrent requests cannot
+        // both insert and a missing movie is reported by its foreign key instead of a lookup beforehand
+        try {
+            id = reviewRepository.insertIfAbsent(reviewDto.getMovieId(), user.getId(), reviewDto.getScore(), reviewDto.getContent())
+                    .orElseThrow(() -> DataConflictException.reviewExists(user.getId(), reviewDto.getMovieId()));
+        } catch (DataIntegrityViolationException ex) {
+            if (!isForeignKeyViolation(ex))
+                throw ex;
 
+            throw NotFoundException.movieNotFoundById(reviewDto.getMovieId());
+        }
 
-        return reviewRepository.save(Review.builder()
+        Review review = Review.builder()
+                .id(id)
                 .movie(movieRepository.getReferenceById(reviewDto.getMovieId()))
                 .author(user)
                 .score(reviewDto.getScore())
                 .content(reviewDto.getContent())
-                .build()
-        );
+                .build();
+
+        lockRatingStats(reviewDto.getMovieId()).add(review.getScore());
+
+        return review;
     }
 
     public Review get(Long id) throws NotFoundException {
@@ -59,64 +81,146 @@ public class ReviewService implements IObjectService<Review, ReviewDto>{
         return reviewRepository.findAll();
     }
 
-    public List<Review> getAllOfMovie(Long movieId) throws NotFoundException {
+    public List<Review> getPageOfMovie(Long movieId, EReviewSort sort, String after, int limit)
+            throws NotFoundException, BadRequestException {
+        Cursor cursor = parseCursor(sort, after);
+
         if (!movieRepository.existsById(movieId))
             throw NotFoundException.movieNotFoundById(movieId);
 
-        return reviewRepository.findAllByMovieId(movieId);
+        return switch (sort) {
+            case Id -> reviewRepository.findAllByMovieIdAndIdGreaterThanOrderByIdAsc(movieId, cursor.id(), Limit.of(limit));
+            case Recent -> reviewRepository.findAllByMovieIdAndIdLessThanOrderByIdDesc(movieId, cursor.id(), Limit.of(limit));
+            case Score -> reviewRepository.findScorePageOfMovie(movieId, cursor.score(), cursor.id(), Limit.of(limit));
+        };
     }
-    public List<Review> getAllOfUser(Long userId) throws NotFoundException {
+
+    public List<Review> getPageOfUser(Long userId, EReviewSort sort, String after, int limit)
+            throws NotFoundException, BadRequestException {
+        Cursor cursor = parseCursor(sort, after);
+
         if (!userRepository.existsById(userId))
             throw NotFoundException.userNotFoundById(userId);
 
-        return reviewRepository.findAllByAuthorId(userId);
+        return getPageOfAuthor(userId, sort, cursor, limit);
     }
 
+    // The authenticated user exists, so their own listing goes straight to the page query
+    public List<Review> getOwnPage(Long authorId, EReviewSort sort, String after, int limit) throws BadRequestException {
+        return getPageOfAuthor(authorId, sort, parseCursor(sort, after), limit);
+    }
+
+    private List<Review> getPageOfAuthor(Long authorId, EReviewSort sort, Cursor cursor, int limit) {
+        return switch (sort) {
+            case Id -> reviewRepository.findAllByAuthorIdAndIdGreaterThanOrderByIdAsc(authorId, cursor.id(), Limit.of(limit));
+            case Recent -> reviewRepository.findAllByAuthorIdAndIdLessThanOrderByIdDesc(authorId, cursor.id(), Limit.of(limit));
+            case Score -> reviewRepository.findScorePageOfAuthor(authorId, cursor.score(), cursor.id(), Limit.of(limit));
+        };
+    }
+
+    /**
+     * Opaque cursor of a review in a listing of the given sort. It is tagged with the sort, so it cannot be
+     * reused with another one, and for {@code Score} it carries the score as well, so the next page continues
+     * from it without reading the cursor review again.
+     */
+    public static String cursorOf(EReviewSort sort, Long id, Short score) {
+        String cursor = sort == EReviewSort.Score ? sort + ":" + score + ":" + id : sort + ":" + id;
+
+        return CURSOR_ENCODER.encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Without a cursor a listing starts from its first row; ascending ids from the lowest, the others from the top
+    private static Cursor parseCursor(EReviewSort sort, String after) throws BadRequestException {
+        if (after == null || after.isBlank())
+            return switch (sort) {
+                case Id -> new Cursor(null, 0L);
+                case Recent -> new Cursor(null, Long.MAX_VALUE);
+                case Score -> new Cursor((short) (MovieRatingStats.MAX_SCORE + 1), Long.MAX_VALUE);
+            };
+
+        try {
+            String[] parts = new String(CURSOR_DECODER.decode(after), StandardCharsets.US_ASCII).split(":");
+
+            if (!parts[0].equals(sort.name()) || parts.length != (sort == EReviewSort.Score ? 3 : 2))
+                throw BadRequestException.invalidCursor(after, sort.name());
+
+            return sort == EReviewSort.Score ?
+                    new Cursor(Short.parseShort(parts[1]), Long.parseLong(parts[2])) :
+                    new Cursor(null, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw BadRequestException.invalidCursor(after, sort.name());
+        }
+    }
+
+    private record Cursor(Short score, Long id) {
+    }
+
+    @Transactional
     public Review updateOwn(Long id, ReviewDto reviewDto) throws NotFoundException, PermissionException {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        Review review = reviewRepository.findById(id)
-                .orElseThrow(() -> NotFoundException.reviewNotFoundById(id));
+        Review review = reviewRepository.updateOfAuthor(id, user.getId(), reviewDto.getScore(), reviewDto.getContent())
+                .orElseThrow(() -> notOwnReview(id));
 
-        if (!review.getAuthor().getId().equals(user.getId()))
-            throw new PermissionException("You are not the author");
+        lockRatingStats(review.getMovie().getId()).replace(review.getScore(), reviewDto.getScore());
 
         review.setScore(reviewDto.getScore());
         review.setContent(reviewDto.getContent());
 
-        return reviewRepository.save(review);
+        return review;
     }
 
+    @Transactional
     public Review update(Long id, ReviewDto reviewDto) throws NotFoundException {
-        Review review = reviewRepository.findById(id)
+        // The previous score is read by the locking update itself, so a concurrent edit cannot skew the stats
+        Review review = reviewRepository.updateReturningPrevious(id, reviewDto.getScore(), reviewDto.getContent())
                 .orElseThrow(() -> NotFoundException.reviewNotFoundById(id));
 
+        lockRatingStats(review.getMovie().getId()).replace(review.getScore(), reviewDto.getScore());
+
         review.setScore(reviewDto.getScore());
         review.setContent(reviewDto.getContent());
 
-        return reviewRepository.save(review);
+        return review;
     }
 
+    @Transactional
     public Review deleteOwn(Long id) throws NotFoundException, PermissionException {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        Review review = reviewRepository.findById(id)
-                .orElseThrow(() -> NotFoundException.reviewNotFoundById(id));
-
-        if (!review.getAuthor().getId().equals(user.getId()))
-            throw new PermissionException("You are not the author");
+        Review review = reviewRepository.deleteOfAuthor(id, user.getId())
+                .orElseThrow(() -> notOwnReview(id));
 
-        reviewRepository.deleteById(id);
+        lockRatingStats(review.getMovie().getId()).remove(review.getScore());
 
         return review;
     }
 
+    @Transactional
     public Review delete(Long id) throws NotFoundException {
-        Review found = reviewRepository.findById(id)
+        Review found = reviewRepository.deleteReturningPrevious(id)
                 .orElseThrow(() -> NotFoundException.reviewNotFoundById(id));
 
-        reviewRepository.deleteById(id);
+        lockRatingStats(found.getMovie().getId()).remove(found.getScore());
 
         return found;
     }
+
+    private boolean isForeignKeyViolation(DataIntegrityViolationException ex) {
+        return ex.getMostSpecificCause() instanceof SQLException cause && FOREIGN_KEY_VIOLATIONS.contains(cause.getSQLState());
+    }
+
+    // The author-checked statements match nothing either way, so only then is the review looked up to tell which it was
+    private RuntimeException notOwnReview(Long id) {
+        if (!reviewRepository.existsById(id))
+            return NotFoundException.reviewNotFoundById(id);
+
+        return new PermissionException("You are not the author");
+    }
+
+    // The stats row stays locked until commit, so concurrent reviews of one movie are applied one after another
+    private MovieRatingStats lockRatingStats(Long movieId) {
+        return ratingStatsRepository.findByMovieIdForUpdate(movieId)
+                .orElseGet(() -> ratingStatsRepository.save(MovieRatingStats.of(movieRepository.getReferenceById(movieId))));
+    }
 }
@@ -1,41 +1,50 @@
 package com.example.moviemetricsv2.api.service;
 
-import com.example.moviemetricsv2.api.model.Permission;
+import com.example.moviemetricsv2.api.cache.ReferenceCache;
+import com.example.moviemetricsv2.api.cache.UserDetailsCache;
 import com.example.moviemetricsv2.api.model.Role;
 import com.example.moviemetricsv2.api.repository.IRoleRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
-@RequiredArgsConstructor
 public class RoleService {
-    private final IRoleRepository roleRepository;
+    private final ReferenceTableWriter referenceTableWriter;
+    private final UserDetailsCache userDetailsCache;
+    private final ReferenceCache<Role> cache;
+
+    public RoleService(IRoleRepository roleRepository, ReferenceTableWriter referenceTableWriter, UserDetailsCache userDetailsCache) {
+        this.referenceTableWriter = referenceTableWriter;
+        this.userDetailsCache = userDetailsCache;
+        this.cache = new ReferenceCache<>(roleRepository::findAll, Role::getId);
+    }
 
     public List<Role> getAll() {
-        return roleRepository.findAll();
+        return cache.getAll();
+    }
+
+    public boolean exists(Long id) {
+        return cache.contains(id);
     }
 
-    public Role findOrCreate(Long id, String name, List<Permission> permissions) {
-        return roleRepository.findByNameIgnoreCase(name).orElseGet(() -> roleRepository.save(
-                Role.builder()
-                        .id(id)
-                        .name(name)
-                        .permissions(permissions)
-                        .build()
-        ));
+    public void refreshCache() {
+        cache.refresh();
     }
 
-    public void createIfNotFound(Long id, String name, List<Permission> permissions) {
-        if (!roleRepository.existsByNameIgnoreCase(name))
-            roleRepository.save(
-                    Role.builder()
-                            .id(id)
-                            .name(name)
-                            .permissions(permissions)
-                            .build()
-            );
+    // Roles and their permission rows commit together, so a role is never stored without its permissions
+    @Transactional
+    public List<Role> createAllIfNotFound(List<Role> roles) {
+        return cache.createAllIfNotFound(roles, Role::getName, missing -> {
+            referenceTableWriter.insertAllIfAbsent("roles", List.of("id", "name"), missing.stream()
+                    .map(role -> List.<Object>of(role.getId(), role.getName()))
+                    .toList());
+            referenceTableWriter.insertAllIfAbsent("role_permissions", List.of("role_id", "permission_id"), missing.stream()
+                    .flatMap(role -> role.getPermissions().stream().map(permission -> List.<Object>of(role.getId(), permission.getId())))
+                    .toList());
+            userDetailsCache.invalidateAll();
+        });
     }
 }
@@ -1,6 +1,8 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.cache.UserDetailsCache;
 import com.example.moviemetricsv2.api.dto.UserDto;
+import com.example.moviemetricsv2.api.dto.UserPatchDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.Role;
@@ -8,27 +10,31 @@ import com.example.moviemetricsv2.api.model.User;
 import com.example.moviemetricsv2.api.repository.IRoleRepository;
 import com.example.moviemetricsv2.api.repository.IUserRepository;
 import com.example.moviemetricsv2.api.response.UserResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 @Service
+@Timed(value = "moviemetrics.service", histogram = true)
 @RequiredArgsConstructor
-public class UserService implements IObjectService<User, UserDto> {
+public class UserService implements IObjectService<User, UserDto, UserPatchDto> {
     private final IUserRepository userRepository;
     private final IRoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public User create(UserDto userDto) {
         if (userRepository.existsByEmailIgnoreCase(userDto.getEmail()))
             throw DataConflictException.emailTaken(userDto.getEmail());
 
-        if (!roleRepository.existsById(userDto.getRoleId()))
-            throw NotFoundException.roleNotFoundById(userDto.getRoleId());
+        Role role = roleRepository.findById(userDto.getRoleId())
+                .orElseThrow(() -> NotFoundException.roleNotFoundById(userDto.getRoleId()));
 
         return userRepository.save(
                 User.builder()
@@ -38,7 +44,7 @@ public class UserService implements IObjectService<User, UserDto> {
                                         userDto.getPassword() :
                                         passwordEncoder.encode(userDto.getPassword())
                         )
-                        .role(roleRepository.getReferenceById(userDto.getRoleId()))
+                        .role(role)
                         .build()
         );
     }
@@ -46,7 +52,7 @@ public class UserService implements IObjectService<User, UserDto> {
     @Override
     public User get(Long id) throws NotFoundException {
 
-        return userRepository.findById(id)
+        return userRepository.findWithRoleById(id)
                 .orElseThrow(() -> NotFoundException.userNotFoundById(id));
     }
 
@@ -61,39 +67,53 @@ public class UserService implements IObjectService<User, UserDto> {
         return userRepository.findAll();
     }
 
-    @Override
-    public User update(Long id, UserDto userDto) throws DataConflictException, NotFoundException {
-        if (!userRepository.existsById(id))
-            throw NotFoundException.userNotFoundById(id);
-
-        Optional<User> found = userRepository.findByEmailIgnoreCase(userDto.getEmail());
-
-        if (found.isPresent() && !found.get().getId().equals(id))
-            throw DataConflictException.emailTaken(userDto.getEmail());
-
-        if (!roleRepository.existsById(userDto.getRoleId()))
-            throw NotFoundException.roleNotFoundById(userDto.getRoleId());
+    public List<User> getPage(Long after, int limit) {
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
 
-        return userRepository.save(
-                User.builder()
-                        .id(id)
-                        .email(userDto.getEmail())
-                        .password(
-                                userDto.getIsPasswordEncrypted() ?
-                                        userDto.getPassword() :
-                                        passwordEncoder.encode(userDto.getPassword())
-                        )
-                        .role(roleRepository.getReferenceById(userDto.getRoleId()))
-                        .build()
-        );
+    @Override
+    @Transactional
+    public User update(Long id, UserPatchDto userPatchDto) throws DataConflictException, NotFoundException {
+        User user = userRepository.findWithRoleById(id)
+                .orElseThrow(() -> NotFoundException.userNotFoundById(id));
+        String previousEmail = user.getEmail();
+
+        // The loaded user stays managed, so dirty checking writes only the columns that changed
+        if (userPatchDto.getEmail() != null) {
+            if (!userPatchDto.getEmail().equalsIgnoreCase(previousEmail)
+                    && userRepository.existsByEmailIgnoreCase(userPatchDto.getEmail()))
+                throw DataConflictException.emailTaken(userPatchDto.getEmail());
+
+            user.setEmail(userPatchDto.getEmail());
+        }
+
+        // BCrypt is deliberately slow, so a password is only hashed when one is given
+        if (userPatchDto.getPassword() != null)
+            user.setPassword(
+                    Boolean.TRUE.equals(userPatchDto.getIsPasswordEncrypted()) ?
+                            userPatchDto.getPassword() :
+                            passwordEncoder.encode(userPatchDto.getPassword())
+            );
+
+        // Roles are in the second-level cache, so a role change is usually just the update of users.role_id
+        if (userPatchDto.getRoleId() != null && !userPatchDto.getRoleId().equals(user.getRole().getId()))
+            user.setRole(roleRepository.findById(userPatchDto.getRoleId())
+                    .orElseThrow(() -> NotFoundException.roleNotFoundById(userPatchDto.getRoleId())));
+
+        userDetailsCache.invalidate(previousEmail);
+        userDetailsCache.invalidate(user.getEmail());
+
+        return user;
     }
 
     @Override
+    @Transactional
     public User delete(Long id) throws NotFoundException {
-        User found = userRepository.findById(id)
+        User found = userRepository.findWithRoleById(id)
                 .orElseThrow(() -> NotFoundException.userNotFoundById(id));
 
         userRepository.deleteById(id);
+        userDetailsCache.invalidate(found.getEmail());
 
         return found;
     }
@@ -0,0 +1,80 @@
+create sequence movies_id_seq start with 1 increment by 50;
+
+create table permissions (
+    id   bigint not null,
+    name varchar(32),
+    primary key (id)
+);
+
+create table roles (
+    id   bigint not null,
+    name varchar(16),
+    primary key (id)
+);
+
+create table role_permissions (
+    role_id       bigint not null,
+    permission_id bigint not null,
+    primary key (role_id, permission_id),
+    foreign key (role_id) references roles,
+    foreign key (permission_id) references permissions
+);
+
+create table users (
+    id       bigint generated by default as identity,
+    email    varchar(64),
+    password varchar(255),
+    role_id  bigint not null,
+    primary key (id),
+    foreign key (role_id) references roles
+);
+
+create table genres (
+    id   bigint not null,
+    name varchar(32),
+    primary key (id)
+);
+
+create table movie_classifications (
+    id    bigint not null,
+    name  varchar(32),
+    brief varchar(5),
+    primary key (id)
+);
+
+create table movies (
+    id                      bigint not null,
+    title                   varchar(64),
+    description             varchar(2048),
+    movie_classification_id bigint not null,
+    primary key (id),
+    foreign key (movie_classification_id) references movie_classifications
+);
+
+create table movie_genres (
+    movie_id bigint not null,
+    genre_id bigint not null,
+    primary key (movie_id, genre_id),
+    foreign key (movie_id) references movies,
+    foreign key (genre_id) references genres
+);
+
+create table movie_rating_stats (
+    movie_id     bigint not null,
+    review_count bigint not null,
+    score_sum    bigint not null,
+    histogram    bigint array not null,
+    primary key (movie_id),
+    foreign key (movie_id) references movies
+);
+
+create table reviews (
+    id        bigint generated by default as identity,
+    movie_id  bigint not null,
+    author_id bigint not null,
+    score     numeric(1) not null,
+    content   varchar(2048),
+    primary key (id),
+    foreign key (movie_id) references movies,
+    foreign key (author_id) references users
+);
@@ -0,0 +1,13 @@
+-- One review per user and movie; ReviewService.create relies on this instead of checking first
+alter table reviews add constraint reviews_movie_id_author_id_key unique (movie_id, author_id);
+
+-- Foreign keys not already covered by the leading column of a primary key or unique constraint
+create index role_permissions_permission_id_idx on role_permissions (permission_id);
+create index users_role_id_idx on users (role_id);
+create index movies_movie_classification_id_idx on movies (movie_classification_id);
+create index movie_genres_genre_id_idx on movie_genres (genre_id);
+create index reviews_author_id_id_idx on reviews (author_id, id);
+
+-- Keyset pages of a movie's reviews, by id and by score
+create index reviews_movie_id_id_idx on reviews (movie_id, id);
+create index reviews_movie_id_score_id_idx on reviews (movie_id, score, id);
@@ -0,0 +1,2 @@
+-- Keyset pages of an author's reviews by score; the movie side is covered by reviews_movie_id_score_id_idx
+create index reviews_author_id_score_id_idx on reviews (author_id, score, id);
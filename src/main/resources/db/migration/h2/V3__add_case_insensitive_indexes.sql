@@ -0,0 +1,7 @@
+-- H2 has no expression indexes, so the upper() indexes used on PostgreSQL become plain unique indexes
+create unique index users_email_idx on users (email);
+create unique index movies_title_idx on movies (title);
+create unique index genres_name_idx on genres (name);
+create unique index movie_classifications_name_idx on movie_classifications (name);
+create unique index roles_name_idx on roles (name);
+create unique index permissions_name_idx on permissions (name);
@@ -0,0 +1,22 @@
+-- H2 has no expression indexes, so the case-sensitive indexes of V3 are replaced by unique indexes on generated
+-- upper() columns; like the upper() indexes on PostgreSQL they reject values that only differ in case
+drop index users_email_idx;
+drop index movies_title_idx;
+drop index genres_name_idx;
+drop index movie_classifications_name_idx;
+drop index roles_name_idx;
+drop index permissions_name_idx;
+
+alter table users add column email_upper varchar(64) generated always as (upper(email));
+alter table movies add column title_upper varchar(64) generated always as (upper(title));
+alter table genres add column name_upper varchar(32) generated always as (upper(name));
+alter table movie_classifications add column name_upper varchar(32) generated always as (upper(name));
+alter table roles add column name_upper varchar(16) generated always as (upper(name));
+alter table permissions add column name_upper varchar(32) generated always as (upper(name));
+
+create unique index users_email_upper_idx on users (email_upper);
+create unique index movies_title_upper_idx on movies (title_upper);
+create unique index genres_name_upper_idx on genres (name_upper);
+create unique index movie_classifications_name_upper_idx on movie_classifications (name_upper);
+create unique index roles_name_upper_idx on roles (name_upper);
+create unique index permissions_name_upper_idx on permissions (name_upper);
@@ -0,0 +1,7 @@
+-- The ...IgnoreCase repository queries compare upper(column) = upper(?), so the indexes are on upper()
+create unique index users_email_upper_idx on users (upper(email));
+create unique index movies_title_upper_idx on movies (upper(title));
+create unique index genres_name_upper_idx on genres (upper(name));
+create unique index movie_classifications_name_upper_idx on movie_classifications (upper(name));
+create unique index roles_name_upper_idx on roles (upper(name));
+create unique index permissions_name_upper_idx on permissions (upper(name));
@@ -0,0 +1,68 @@
+package com.example.moviemetricsv2.api.cache;
+
+import com.example.moviemetricsv2.api.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class UserDetailsCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private UserDetailsCache userDetailsCache;
+
+    private UserDetails load(String email) {
+        loads.incrementAndGet();
+        return User.builder().email(email).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(new MockEnvironment());
+        userDetailsCache.get("test@test.com", this::load);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Invalidate: Immediate outside a transaction")
+    void invalidatingOutsideTransactionDropsEntry() {
+        // given
+        // when
+        userDetailsCache.invalidate("TEST@test.com");
+        userDetailsCache.get("test@test.com", this::load);
+
+        // then
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Invalidate: Deferred until commit inside a transaction")
+    void invalidatingInsideTransactionWaitsForCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        userDetailsCache.invalidate("test@test.com");
+        userDetailsCache.get("test@test.com", this::load);
+        int loadsBeforeCommit = loads.get();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        userDetailsCache.get("test@test.com", this::load);
+
+        // then
+        assertThat(loadsBeforeCommit).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.moviemetricsv2.api.components;
+
+import com.example.moviemetricsv2.api.controller.SqlBudget;
+import com.example.moviemetricsv2.api.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+
+class SqlBudgetAspectTest {
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+    @Mock
+    private Signature signature;
+    @Mock
+    private SqlBudget sqlBudget;
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private MeterRegistry meterRegistry;
+
+    private SqlBudgetAspect createAspect(boolean enforce) {
+        return new SqlBudgetAspect(meterRegistry, new MockEnvironment().withProperty("sql.budget.enforce", String.valueOf(enforce)));
+    }
+
+    // The joined method runs the given number of statements through the inspector, like a controller would
+    private void givenStatements(int statements) throws Throwable {
+        given(joinPoint.proceed()).willAnswer(invocation -> {
+            for (int i = 0; i < statements; i++)
+                counter.inspect("select " + i);
+
+            return "result";
+        });
+    }
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+
+        given(joinPoint.getSignature()).willReturn(signature);
+        doReturn(Object.class).when(signature).getDeclaringType();
+        given(signature.getName()).willReturn("get");
+        given(sqlBudget.value()).willReturn(2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SqlStatementCounter.close();
+        autoCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Check Budget: Within budget")
+    void canProceedWithinBudget() throws Throwable {
+        // given
+        givenStatements(2);
+
+        // when
+        Object result = createAspect(true).checkBudget(joinPoint, sqlBudget);
+
+        // then
+        assertThat(result).isEqualTo("result");
+        assertThat(meterRegistry.find("moviemetrics.sql.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Check Budget: Overrun fails when enforced")
+    void overrunWillThrowWhenEnforced() throws Throwable {
+        // given
+        givenStatements(3);
+
+        // when
+        // then
+        assertThatThrownBy(() -> createAspect(true).checkBudget(joinPoint, sqlBudget))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining(SqlBudgetExceededException.of("Object.get", 3, 2).getMessage());
+        assertThat(meterRegistry.get("moviemetrics.sql.budget.exceeded").tag("method", "Object.get").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Check Budget: Overrun only counted when not enforced")
+    void overrunIsCountedWhenNotEnforced() throws Throwable {
+        // given
+        givenStatements(3);
+
+        // when
+        Object result = createAspect(false).checkBudget(joinPoint, sqlBudget);
+
+        // then
+        assertThat(result).isEqualTo("result");
+        assertThat(meterRegistry.get("moviemetrics.sql.budget.exceeded").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Check Budget: Statements before the method not charged")
+    void statementsBeforeMethodAreNotCharged() throws Throwable {
+        // given
+        SqlStatementCounter.open();
+        counter.inspect("select user");
+        counter.inspect("select role");
+        givenStatements(2);
+
+        // when
+        Object result = createAspect(true).checkBudget(joinPoint, sqlBudget);
+
+        // then
+        assertThat(result).isEqualTo("result");
+        assertThat(SqlStatementCounter.count()).isEqualTo(4L);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.moviemetricsv2.api.components;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class SqlStatementCounterTest {
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.close();
+    }
+
+    @Test
+    @DisplayName("Count Statements: Counted while a scope is open")
+    void canCountStatements() {
+        // given
+        SqlStatementCounter.open();
+
+        // when
+        String sql = counter.inspect("select 1");
+        counter.inspect("select 2");
+
+        // then
+        assertThat(sql).isEqualTo("select 1");
+        assertThat(SqlStatementCounter.count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Count Statements: Not counted without a scope")
+    void statementsAreNotCountedWithoutScope() {
+        // given
+        // when
+        counter.inspect("select 1");
+
+        // then
+        assertThat(SqlStatementCounter.count()).isEqualTo(0L);
+        assertThat(SqlStatementCounter.open()).isTrue();
+        assertThat(SqlStatementCounter.count()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Open Scope: Nested scope keeps the outer count")
+    void nestedScopeKeepsOuterCount() {
+        // given
+        SqlStatementCounter.open();
+        counter.inspect("select 1");
+
+        // when
+        boolean opened = SqlStatementCounter.open();
+        counter.inspect("select 2");
+
+        // then
+        assertThat(opened).isFalse();
+        assertThat(SqlStatementCounter.count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Count Statements: Other threads not counted")
+    void statementsOfOtherThreadsAreNotCounted() {
+        // given
+        SqlStatementCounter.open();
+
+        // when
+        CompletableFuture.runAsync(() -> counter.inspect("select 1")).join();
+
+        // then
+        assertThat(SqlStatementCounter.count()).isEqualTo(0L);
+    }
+}
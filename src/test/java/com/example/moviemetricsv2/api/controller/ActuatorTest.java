@@ -0,0 +1,101 @@
+package com.example.moviemetricsv2.api.controller;
+
+import com.example.moviemetricsv2.MovieMetricsV2Application;
+import com.example.moviemetricsv2.api.request.AuthenticationRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase
+@AutoConfigureObservability
+@SpringBootTest(classes = MovieMetricsV2Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ActuatorTest {
+    @LocalServerPort
+    private int port;
+    @LocalManagementPort
+    private int managementPort;
+
+    @Value("${root.root_access}")
+    private String rootEmail;
+    @Value("${root.root_password}")
+    private String rootPassword;
+
+    final TestRestTemplate restTemplate = new TestRestTemplate();
+
+    private String getURL(String uri) {
+        return "http://localhost:" + port + uri;
+    }
+
+    @Test
+    @DisplayName("Prometheus: Service, repository and Hibernate metrics")
+    public void testPrometheusScrape() {
+        // given
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email(rootEmail)
+                .password(rootPassword)
+                .build();
+
+        restTemplate.exchange(getURL("/auth/login"), HttpMethod.POST, new HttpEntity<>(request), String.class);
+
+        // when
+        ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("moviemetrics_service_seconds_bucket{application=\"movie-metrics-v2\",class=\"com.example.moviemetricsv2.api.service.AuthenticationService\"")
+                .contains("moviemetrics_service_seconds_count{application=\"movie-metrics-v2\",class=\"com.example.moviemetricsv2.api.service.JwtService\"")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("hibernate_statements_total");
+    }
+
+    @Test
+    @DisplayName("Prometheus: SQL statements per request")
+    public void testPrometheusSqlStatementsPerRequest() {
+        // given
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email(rootEmail)
+                .password(rootPassword)
+                .build();
+
+        restTemplate.exchange(getURL("/auth/login"), HttpMethod.POST, new HttpEntity<>(request), String.class);
+
+        // when
+        ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_sql_statements_count{application=\"movie-metrics-v2\",method=\"POST\",uri=\"/auth/login\"")
+                .contains("http_server_requests_sql_statements_max{application=\"movie-metrics-v2\",method=\"POST\",uri=\"/auth/login\"");
+    }
+
+    @Test
+    @DisplayName("Prometheus: Not served on the API port")
+    public void testPrometheusNotOnApiPort() {
+        // given
+        // when
+        ResponseEntity<String> response = restTemplate.getForEntity(getURL("/actuator/prometheus"), String.class);
+
+        // then
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -2,14 +2,18 @@ package com.example.moviemetricsv2.api.controller;
 
 import com.example.moviemetricsv2.MovieMetricsV2Application;
 import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.dto.MoviePatchDto;
+import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.*;
 import com.example.moviemetricsv2.api.repository.IMovieClassificationRepository;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
 import com.example.moviemetricsv2.api.repository.IMovieRepository;
 import com.example.moviemetricsv2.api.repository.IRoleRepository;
 import com.example.moviemetricsv2.api.repository.IUserRepository;
 import com.example.moviemetricsv2.api.request.AuthenticationRequest;
 import com.example.moviemetricsv2.api.response.AuthenticationResponse;
+import com.example.moviemetricsv2.api.response.MovieImportResponse;
 import com.example.moviemetricsv2.api.response.MovieResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -20,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,9 +32,12 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
 
 @ExtendWith(SpringExtension.class)
 @AutoConfigureTestDatabase
@@ -47,9 +55,11 @@ public class MovieControllerTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
-    @Autowired
+    @SpyBean
     IMovieRepository movieRepository;
     @Autowired
+    IMovieRatingStatsRepository ratingStatsRepository;
+    @Autowired
     IMovieClassificationRepository movieClassificationRepository;
 
     final TestRestTemplate restTemplate = new TestRestTemplate();
@@ -71,7 +81,7 @@ public class MovieControllerTest {
                         .title(title)
                         .description("Test description")
                         .classification(movieClassification)
-                        .genres(new ArrayList<>())
+                        .genres(new LinkedHashSet<>())
                         .build()
         );
     }
@@ -133,9 +143,34 @@ public class MovieControllerTest {
 
     @BeforeEach
     public void cleanUp() {
+        ratingStatsRepository.deleteAll();
         movieRepository.deleteAll();
     }
 
+    @Test
+    @DisplayName("Create Movie: Successful with genres")
+    public void testPostMovieWithGenres() throws JsonProcessingException {
+        // given
+        MovieDto movieDto = createMovieDto("Test");
+        movieDto.setGenreIds(List.of(1L, 2L));
+
+        HttpEntity<MovieDto> entity = new HttpEntity<>(movieDto, moderatorHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.CREATED.value());
+
+        MovieResponse movie = objectMapper.readValue(response.getBody(), MovieResponse.class);
+
+        assertThat(movie.getGenres()).isEqualTo(EGenre.values()[0].getName() + ", " + EGenre.values()[1].getName());
+    }
+
     @Test
     @DisplayName("Create Movie: Successful as Moderator")
     public void testPostMovieAsModerator() throws JsonProcessingException {
@@ -262,6 +297,193 @@ public class MovieControllerTest {
         assertThat(response.getBody()).containsIgnoringCase("Title");
     }
 
+    @Test
+    @DisplayName("Bulk Create Movies: Per row results")
+    public void testBulkPostMovies() throws JsonProcessingException {
+        // given
+        createMovie("Taken");
+
+        MovieDto withMissingGenres = createMovieDto("Test2");
+        withMissingGenres.setGenreIds(List.of(998L, 999L));
+
+        List<MovieDto> movieDtos = List.of(
+                createMovieDto("Test1"),
+                createMovieDto("Taken"),
+                createMovieDto("te"),
+                withMissingGenres,
+                createMovieDto("TEST1")
+        );
+
+        HttpEntity<List<MovieDto>> entity = new HttpEntity<>(movieDtos, moderatorHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/bulk"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        List<MovieImportResponse> results = objectMapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+
+        assertThat(results.stream().map(MovieImportResponse::getStatus).toList()).isEqualTo(List.of(
+                HttpStatus.CREATED.value(),
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.NOT_FOUND.value(),
+                HttpStatus.CONFLICT.value()
+        ));
+        assertThat(results.get(3).getMessage()).isEqualTo(NotFoundException.genresNotFoundByIds(List.of(998L, 999L)).getMessage());
+        assertThat(movieRepository.existsById(results.get(0).getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Bulk Create Movies: Invalid row reported like single create")
+    public void testBulkPostMoviesInvalidRowMessage() throws JsonProcessingException {
+        // given
+        ResponseEntity<String> singleResponse = restTemplate.exchange(
+                getURL("/api/movies"),
+                HttpMethod.POST, new HttpEntity<>(createMovieDto("te"), moderatorHeaders), String.class);
+
+        HttpEntity<List<MovieDto>> entity = new HttpEntity<>(List.of(createMovieDto("te")), moderatorHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/bulk"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(singleResponse.getStatusCode().value()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+
+        List<MovieImportResponse> results = objectMapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+
+        assertThat(results.get(0).getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(results.get(0).getMessage()).isEqualTo(singleResponse.getBody());
+    }
+
+    @Test
+    @DisplayName("Bulk Create Movies: NDJSON stream")
+    public void testBulkPostMoviesNdjson() throws JsonProcessingException {
+        // given
+        String body = objectMapper.writeValueAsString(createMovieDto("Test1")) + "\n"
+                + objectMapper.writeValueAsString(createMovieDto("Test2")) + "\n";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(moderatorHeaders);
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        HttpEntity<String> entity = new HttpEntity<>(body, headers);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/bulk"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        List<MovieImportResponse> results = objectMapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+
+        assertThat(results.size()).isEqualTo(2);
+        assertThat(movieRepository.existsByTitleIgnoreCase("Test2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Bulk Create Movies: Malformed row keeps earlier results")
+    public void testBulkPostMoviesMalformedRow() throws JsonProcessingException {
+        // given
+        String body = "[" + objectMapper.writeValueAsString(createMovieDto("Test1")) + ", {\"title\": }]";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(moderatorHeaders);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<String> entity = new HttpEntity<>(body, headers);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/bulk"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        List<MovieImportResponse> results = objectMapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+
+        assertThat(results.stream().map(MovieImportResponse::getStatus).toList()).isEqualTo(List.of(
+                HttpStatus.CREATED.value(),
+                HttpStatus.BAD_REQUEST.value()
+        ));
+        assertThat(results.get(1).getIndex()).isEqualTo(1);
+        assertThat(movieRepository.existsByTitleIgnoreCase("Test1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Bulk Create Movies: Database conflict in a later chunk fails only its row")
+    public void testBulkPostMoviesConflictInLaterChunk() throws JsonProcessingException {
+        // given
+        createMovie("Taken");
+
+        List<MovieDto> movieDtos = new ArrayList<>();
+        for (int i = 0; i <= MovieController.IMPORT_CHUNK_SIZE; i++)
+            movieDtos.add(createMovieDto("Test" + i));
+        movieDtos.add(createMovieDto("Taken"));
+
+        // The title check misses the taken title, like when a concurrent insert takes it right after the check
+        doReturn(List.of()).when(movieRepository).findTakenTitles(argThat(titles -> titles.contains("TAKEN")));
+
+        HttpEntity<List<MovieDto>> entity = new HttpEntity<>(movieDtos, moderatorHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/bulk"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        List<MovieImportResponse> results = objectMapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+
+        int last = MovieController.IMPORT_CHUNK_SIZE + 1;
+        assertThat(results.size()).isEqualTo(last + 1);
+        assertThat(results.get(0).getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(results.get(last - 1).getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(results.get(last).getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(results.get(last).getMessage()).isEqualTo(DataConflictException.movieConflict("Taken").getMessage());
+        assertThat(movieRepository.existsByTitleIgnoreCase("Test" + MovieController.IMPORT_CHUNK_SIZE)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Bulk Create Movies: No permission role User")
+    public void testBulkPostMoviesNoPermissionRoleUser() {
+        // given
+        HttpEntity<List<MovieDto>> entity = new HttpEntity<>(List.of(createMovieDto("Test")), userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/bulk"),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.FORBIDDEN.value());
+    }
+
     @Test
     @DisplayName("Update Movie: Successful as Moderator")
     public void testPatchMovieAsModerator() throws JsonProcessingException {
@@ -312,6 +534,32 @@ public class MovieControllerTest {
         assertThat(movie.getTitle()).isEqualTo(movieDto.getTitle());
     }
 
+    @Test
+    @DisplayName("Update Movie: Partial document")
+    public void testPatchMoviePartially() throws JsonProcessingException {
+        // given
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().description("Other description").build();
+
+        Movie saved = createMovie("TestMe");
+
+        HttpEntity<MoviePatchDto> entity = new HttpEntity<>(moviePatchDto, adminHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/" + saved.getId()),
+                HttpMethod.PATCH, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        MovieResponse movie = objectMapper.readValue(response.getBody(), MovieResponse.class);
+
+        assertThat(movie.getTitle()).isEqualTo(saved.getTitle());
+        assertThat(movie.getDescription()).isEqualTo(moviePatchDto.getDescription());
+    }
+
     @Test
     @DisplayName("Update Movie: Not Authenticated")
     public void testPatchMovieNotAuthenticated() {
@@ -484,6 +732,36 @@ public class MovieControllerTest {
         assertThat(movie.getTitle()).isEqualTo(saved.getTitle());
     }
 
+    @Test
+    @DisplayName("Delete Movie: Created with genres through the API")
+    public void testDeleteMovieCreatedWithGenres() throws JsonProcessingException {
+        // given
+        MovieDto movieDto = createMovieDto("Test");
+        movieDto.setGenreIds(List.of(1L, 2L));
+
+        MovieResponse created = objectMapper.readValue(restTemplate.exchange(
+                getURL("/api/movies"),
+                HttpMethod.POST, new HttpEntity<>(movieDto, adminHeaders), String.class).getBody(), MovieResponse.class);
+
+        HttpEntity<String> entity = new HttpEntity<>(null, adminHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/" + created.getId()),
+                HttpMethod.DELETE, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        MovieResponse movie = objectMapper.readValue(response.getBody(), MovieResponse.class);
+
+        assertThat(movie.getGenres()).isEqualTo(created.getGenres());
+        assertThat(movieRepository.existsById(created.getId())).isFalse();
+        assertThat(ratingStatsRepository.existsById(created.getId())).isFalse();
+    }
+
     @Test
     @DisplayName("Delete Movie: Successful as Moderator")
     public void testDeleteMovieAsModerator() throws JsonProcessingException {
@@ -642,6 +920,39 @@ public class MovieControllerTest {
         assertThat(movies.size()).isEqualTo(3);
     }
 
+    @Test
+    @DisplayName("Get All Movies: Paginated with cursor")
+    public void testGetMoviesPaginated() throws JsonProcessingException {
+        // given
+        createMovie("Test1");
+        Movie second = createMovie("Test2");
+        Movie third = createMovie("Test3");
+
+        HttpEntity<String> entity = new HttpEntity<>(null, userHeaders);
+
+        // when
+        ResponseEntity<String> firstPage = restTemplate.exchange(
+                getURL("/api/movies?limit=2"),
+                HttpMethod.GET, entity, String.class);
+
+        ResponseEntity<String> lastPage = restTemplate.exchange(
+                getURL("/api/movies?limit=2&after=" + firstPage.getHeaders().getFirst(BaseController.NEXT_CURSOR_HEADER)),
+                HttpMethod.GET, entity, String.class);
+
+        // then
+        System.out.println(firstPage.getBody());
+        System.out.println(lastPage.getBody());
+        assertThat(firstPage.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+        assertThat(firstPage.getHeaders().getFirst(BaseController.NEXT_CURSOR_HEADER)).isEqualTo(second.getId().toString());
+
+        List<MovieResponse> movies = objectMapper.readValue(lastPage.getBody(), new TypeReference<>() {
+        });
+
+        assertThat(movies.size()).isEqualTo(1);
+        assertThat(movies.get(0).getId()).isEqualTo(third.getId());
+        assertThat(lastPage.getHeaders().containsKey(BaseController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
     @Test
     @DisplayName("Get All Movies: Not Authenticated")
     public void testGetMoviesNotAuthenticated() {
@@ -0,0 +1,368 @@
+package com.example.moviemetricsv2.api.controller;
+
+import com.example.moviemetricsv2.MovieMetricsV2Application;
+import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.dto.ReviewDto;
+import com.example.moviemetricsv2.api.model.*;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
+import com.example.moviemetricsv2.api.repository.IMovieRepository;
+import com.example.moviemetricsv2.api.repository.IReviewRepository;
+import com.example.moviemetricsv2.api.repository.IRoleRepository;
+import com.example.moviemetricsv2.api.repository.IUserRepository;
+import com.example.moviemetricsv2.api.request.AuthenticationRequest;
+import com.example.moviemetricsv2.api.response.AuthenticationResponse;
+import com.example.moviemetricsv2.api.response.MovieResponse;
+import com.example.moviemetricsv2.api.response.ReviewResponse;
+import com.example.moviemetricsv2.api.service.MovieService;
+import com.example.moviemetricsv2.api.service.ReviewService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+// Runs with sql.budget.enforce, so every call here also fails when it goes over its @SqlBudget
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = MovieMetricsV2Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ReviewControllerTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    IUserRepository userRepository;
+    @Autowired
+    IRoleRepository roleRepository;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    IReviewRepository reviewRepository;
+    @Autowired
+    IMovieRatingStatsRepository ratingStatsRepository;
+    @Autowired
+    IMovieRepository movieRepository;
+    @Autowired
+    MovieService movieService;
+
+    final TestRestTemplate restTemplate = new TestRestTemplate();
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String getURL(String uri) {
+        return "http://localhost:" + port + uri;
+    }
+
+    private final HttpHeaders userHeaders = new HttpHeaders();
+    private final HttpHeaders otherUserHeaders = new HttpHeaders();
+
+    private Movie movie;
+
+    private ReviewDto createReviewDto(int score) {
+        return ReviewDto.builder()
+                .score((short) score)
+                .content("Test review")
+                .build();
+    }
+
+    private ReviewResponse postReview(HttpHeaders headers, int score) throws JsonProcessingException {
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId()),
+                HttpMethod.POST, new HttpEntity<>(createReviewDto(score), headers), String.class);
+
+        return objectMapper.readValue(response.getBody(), ReviewResponse.class);
+    }
+
+    private MovieResponse getMovie() throws JsonProcessingException {
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/movies/" + movie.getId()),
+                HttpMethod.GET, new HttpEntity<>(null, userHeaders), String.class);
+
+        return objectMapper.readValue(response.getBody(), MovieResponse.class);
+    }
+
+    private String createUserAndLogin(String email, Role role) throws JsonProcessingException {
+        String password = "TestPassword1";
+        User user = User.builder()
+                .email(email)
+                .password(passwordEncoder.encode(password))
+                .role(role)
+                .build();
+
+        userRepository.save(user);
+
+        HttpEntity<AuthenticationRequest> entity = new HttpEntity<>(
+                AuthenticationRequest.builder()
+                        .email(email)
+                        .password(password)
+                        .build()
+        );
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/auth/login"),
+                HttpMethod.POST, entity, String.class);
+
+        AuthenticationResponse authenticationResponse = objectMapper.readValue(response.getBody(), AuthenticationResponse.class);
+        if (authenticationResponse.getToken() == null) throw new RuntimeException("Login error");
+
+        return authenticationResponse.getToken();
+    }
+
+    @BeforeAll
+    public void setup() throws JsonProcessingException {
+        Role userRole = roleRepository.findByNameIgnoreCase(ERole.User.getName())
+                .orElseThrow(() -> new RuntimeException("Role " + ERole.User.getName() + " not found"));
+
+        userHeaders.setBearerAuth(createUserAndLogin("user@user.com", userRole));
+        otherUserHeaders.setBearerAuth(createUserAndLogin("other@user.com", userRole));
+    }
+
+    @BeforeEach
+    public void cleanUp() {
+        reviewRepository.deleteAll();
+        ratingStatsRepository.deleteAll();
+        movieRepository.deleteAll();
+
+        movie = movieService.create(MovieDto.builder()
+                .title("Test")
+                .description("Test description")
+                .classificationId(1L)
+                .genreIds(List.of(1L))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Create Review: Successful")
+    public void testPostReview() throws JsonProcessingException {
+        // given
+        HttpEntity<ReviewDto> entity = new HttpEntity<>(createReviewDto(4), userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId()),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.CREATED.value());
+
+        ReviewResponse review = objectMapper.readValue(response.getBody(), ReviewResponse.class);
+
+        assertThat(review.getScore()).isEqualTo((short) 4);
+        assertThat(getMovie().getReviewCount()).isEqualTo(1L);
+        assertThat(getMovie().getAverageScore()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("Create Review: Already reviewed")
+    public void testPostReviewTwice() throws JsonProcessingException {
+        // given
+        postReview(userHeaders, 4);
+        HttpEntity<ReviewDto> entity = new HttpEntity<>(createReviewDto(2), userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId()),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(getMovie().getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Create Review: Movie not found")
+    public void testPostReviewMovieNotFound() {
+        // given
+        HttpEntity<ReviewDto> entity = new HttpEntity<>(createReviewDto(4), userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/of/" + (movie.getId() + 1)),
+                HttpMethod.POST, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of Movie: Paged")
+    public void testGetReviewsOfMovie() throws JsonProcessingException {
+        // given
+        ReviewResponse first = postReview(userHeaders, 2);
+        ReviewResponse second = postReview(otherUserHeaders, 5);
+        HttpEntity<String> entity = new HttpEntity<>(null, userHeaders);
+
+        // when
+        ResponseEntity<String> firstPage = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId() + "?limit=1"),
+                HttpMethod.GET, entity, String.class);
+        ResponseEntity<String> lastPage = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId() + "?limit=1&after=" + firstPage.getHeaders().getFirst(BaseController.NEXT_CURSOR_HEADER)),
+                HttpMethod.GET, entity, String.class);
+
+        // then
+        System.out.println(firstPage.getBody());
+        System.out.println(firstPage.getStatusCode());
+        assertThat(firstPage.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        List<ReviewResponse> firstReviews = objectMapper.readValue(firstPage.getBody(), new TypeReference<>() {});
+        List<ReviewResponse> lastReviews = objectMapper.readValue(lastPage.getBody(), new TypeReference<>() {});
+
+        assertThat(firstReviews.get(0).getId()).isEqualTo(first.getId());
+        assertThat(lastReviews.get(0).getId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of Movie: Paged by score")
+    public void testGetReviewsOfMovieByScore() throws JsonProcessingException {
+        // given
+        ReviewResponse lower = postReview(userHeaders, 2);
+        ReviewResponse higher = postReview(otherUserHeaders, 5);
+        HttpEntity<String> entity = new HttpEntity<>(null, userHeaders);
+
+        // when
+        ResponseEntity<String> firstPage = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId() + "?sort=Score&limit=1"),
+                HttpMethod.GET, entity, String.class);
+        ResponseEntity<String> lastPage = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId() + "?sort=Score&limit=1&after=" + firstPage.getHeaders().getFirst(BaseController.NEXT_CURSOR_HEADER)),
+                HttpMethod.GET, entity, String.class);
+
+        // then
+        System.out.println(firstPage.getBody());
+        System.out.println(firstPage.getStatusCode());
+        assertThat(firstPage.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+        assertThat(firstPage.getHeaders().getFirst(BaseController.NEXT_CURSOR_HEADER))
+                .isEqualTo(ReviewService.cursorOf(EReviewSort.Score, higher.getId(), higher.getScore()));
+
+        List<ReviewResponse> firstReviews = objectMapper.readValue(firstPage.getBody(), new TypeReference<>() {});
+        List<ReviewResponse> lastReviews = objectMapper.readValue(lastPage.getBody(), new TypeReference<>() {});
+
+        assertThat(firstReviews.get(0).getId()).isEqualTo(higher.getId());
+        assertThat(lastReviews.get(0).getId()).isEqualTo(lower.getId());
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of Movie: Cursor of another sort rejected")
+    public void testGetReviewsOfMovieWithCursorOfOtherSort() throws JsonProcessingException {
+        // given
+        postReview(userHeaders, 2);
+        postReview(otherUserHeaders, 5);
+        HttpEntity<String> entity = new HttpEntity<>(null, userHeaders);
+
+        ResponseEntity<String> firstPage = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId() + "?limit=1"),
+                HttpMethod.GET, entity, String.class);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/of/" + movie.getId() + "?sort=Score&limit=1&after=" + firstPage.getHeaders().getFirst(BaseController.NEXT_CURSOR_HEADER)),
+                HttpMethod.GET, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    @DisplayName("Update Own Review: Successful")
+    public void testPatchOwnReview() throws JsonProcessingException {
+        // given
+        ReviewResponse saved = postReview(userHeaders, 2);
+        HttpEntity<ReviewDto> entity = new HttpEntity<>(createReviewDto(5), userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/own/" + saved.getId()),
+                HttpMethod.PATCH, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        ReviewResponse review = objectMapper.readValue(response.getBody(), ReviewResponse.class);
+
+        assertThat(review.getScore()).isEqualTo((short) 5);
+        assertThat(getMovie().getReviewCount()).isEqualTo(1L);
+        assertThat(getMovie().getAverageScore()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Update Own Review: Not the author")
+    public void testPatchOwnReviewOfOtherUser() throws JsonProcessingException {
+        // given
+        ReviewResponse saved = postReview(otherUserHeaders, 2);
+        HttpEntity<ReviewDto> entity = new HttpEntity<>(createReviewDto(5), userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/own/" + saved.getId()),
+                HttpMethod.PATCH, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        assertThat(getMovie().getAverageScore()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Delete Own Review: Successful")
+    public void testDeleteOwnReview() throws JsonProcessingException {
+        // given
+        ReviewResponse saved = postReview(userHeaders, 3);
+        HttpEntity<String> entity = new HttpEntity<>(null, userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/own/" + saved.getId()),
+                HttpMethod.DELETE, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+        assertThat(reviewRepository.existsById(saved.getId())).isFalse();
+        assertThat(getMovie().getReviewCount()).isEqualTo(0L);
+        assertThat(getMovie().getAverageScore()).isNull();
+    }
+
+    @Test
+    @DisplayName("Delete Own Review: Not found")
+    public void testDeleteOwnReviewNotFound() {
+        // given
+        HttpEntity<String> entity = new HttpEntity<>(null, userHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/reviews/own/1000"),
+                HttpMethod.DELETE, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.NOT_FOUND.value());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.moviemetricsv2.api.controller;
 
 import com.example.moviemetricsv2.MovieMetricsV2Application;
 import com.example.moviemetricsv2.api.dto.UserDto;
+import com.example.moviemetricsv2.api.dto.UserPatchDto;
 import com.example.moviemetricsv2.api.model.ERole;
 import com.example.moviemetricsv2.api.model.Role;
 import com.example.moviemetricsv2.api.model.User;
@@ -295,6 +296,34 @@ public class UserControllerTest {
         assertThat(user.getEmail()).isEqualTo(userDto.getEmail());
     }
 
+    @Test
+    @DisplayName("Update User: Role only, password kept")
+    public void testPatchUserRole() throws JsonProcessingException {
+        // given
+        Role moderatorRole = roleRepository.findByNameIgnoreCase(ERole.Moderator.getName()).orElseThrow();
+        UserPatchDto userPatchDto = UserPatchDto.builder().roleId(moderatorRole.getId()).build();
+
+        User saved = createUser("testme@testme.com");
+
+        HttpEntity<UserPatchDto> entity = new HttpEntity<>(userPatchDto, adminHeaders);
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/users/" + saved.getId()),
+                HttpMethod.PATCH, entity, String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+
+        UserResponse user = objectMapper.readValue(response.getBody(), UserResponse.class);
+
+        assertThat(user.getEmail()).isEqualTo(saved.getEmail());
+        assertThat(user.getRole()).isEqualTo(moderatorRole.getName());
+        assertThat(userRepository.findById(saved.getId()).orElseThrow().getPassword()).isEqualTo(saved.getPassword());
+    }
+
     @Test
     @DisplayName("Update User: Not Authenticated")
     public void testPatchUserNotAuthenticated() {
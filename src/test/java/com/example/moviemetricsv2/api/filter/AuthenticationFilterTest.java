@@ -0,0 +1,133 @@
+package com.example.moviemetricsv2.api.filter;
+
+import com.example.moviemetricsv2.MovieMetricsV2Application;
+import com.example.moviemetricsv2.api.exception.NotFoundException;
+import com.example.moviemetricsv2.api.model.ERole;
+import com.example.moviemetricsv2.api.model.Role;
+import com.example.moviemetricsv2.api.model.User;
+import com.example.moviemetricsv2.api.repository.IRoleRepository;
+import com.example.moviemetricsv2.api.repository.IUserRepository;
+import com.example.moviemetricsv2.api.request.AuthenticationRequest;
+import com.example.moviemetricsv2.api.response.AuthenticationResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@AutoConfigureTestDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = MovieMetricsV2Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "jwt.stateless=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class AuthenticationFilterTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    IUserRepository userRepository;
+    @Autowired
+    IRoleRepository roleRepository;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    final TestRestTemplate restTemplate = new TestRestTemplate();
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String getURL(String uri) {
+        return "http://localhost:" + port + uri;
+    }
+
+    private final HttpHeaders userHeaders = new HttpHeaders();
+    private final HttpHeaders adminHeaders = new HttpHeaders();
+
+    private String createUserAndLogin(String email, Role role) throws JsonProcessingException {
+        String password = "TestPassword1";
+        User user = User.builder()
+                .email(email)
+                .password(passwordEncoder.encode(password))
+                .role(role)
+                .build();
+
+        userRepository.save(user);
+
+        HttpEntity<AuthenticationRequest> entity = new HttpEntity<>(
+                AuthenticationRequest.builder()
+                        .email(email)
+                        .password(password)
+                        .build()
+        );
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/auth/login"),
+                HttpMethod.POST, entity, String.class);
+
+        AuthenticationResponse authenticationResponse = objectMapper.readValue(response.getBody(), AuthenticationResponse.class);
+        if (authenticationResponse.getToken() == null) throw new RuntimeException("Login error");
+
+        return authenticationResponse.getToken();
+    }
+
+    @BeforeAll
+    public void setup() throws JsonProcessingException {
+        Role userRole = roleRepository.findByNameIgnoreCase(ERole.User.getName())
+                .orElseThrow(() -> new RuntimeException(NotFoundException.roleNotFoundByName(ERole.User.getName())));
+
+        Role adminRole = roleRepository.findByNameIgnoreCase(ERole.Admin.getName())
+                .orElseThrow(() -> new RuntimeException(NotFoundException.roleNotFoundByName(ERole.Admin.getName())));
+
+        userHeaders.setBearerAuth(createUserAndLogin("user@user.com", userRole));
+        adminHeaders.setBearerAuth(createUserAndLogin("admin@admin.com", adminRole));
+    }
+
+    @Test
+    @DisplayName("Stateless: Authenticated from claims without statements")
+    public void testStatelessRequestRunsNoStatements() {
+        // given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/permissions"),
+                HttpMethod.GET, new HttpEntity<>(adminHeaders), String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.OK.value());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Stateless: Authorized by claim authorities")
+    public void testStatelessRequestAuthorizedByClaims() {
+        // given
+        // when
+        ResponseEntity<String> response = restTemplate.exchange(
+                getURL("/api/permissions"),
+                HttpMethod.GET, new HttpEntity<>(userHeaders), String.class);
+
+        // then
+        System.out.println(response.getBody());
+        System.out.println(response.getStatusCode());
+        assertThat(response.getStatusCode().value()).isEqualTo(HttpStatus.FORBIDDEN.value());
+    }
+}
@@ -1,22 +1,36 @@
 package com.example.moviemetricsv2.api.repository;
 
+import com.example.moviemetricsv2.api.model.Genre;
 import com.example.moviemetricsv2.api.model.Movie;
 import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class IMovieRepositoryTest {
     @Autowired
     IMovieRepository movieRepository;
     @Autowired
     IMovieClassificationRepository movieClassificationRepository;
+    @Autowired
+    IGenreRepository genreRepository;
+    @Autowired
+    TestEntityManager entityManager;
 
     @Test
     @DisplayName("Find Movie By Name: Successful")
@@ -115,4 +129,171 @@ class IMovieRepositoryTest {
         // then
         assertThat(movieRepository.existsByTitleIgnoreCase(title)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Save Movie: Title differing only in case rejected")
+    void testSavingCaseVariantTitleWillThrow() {
+        // given
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        movieRepository.save(Movie.builder().title("Alien").description("test").classification(classification).build());
+        entityManager.flush();
+
+        // when
+        // then
+        assertThatThrownBy(() -> movieRepository.saveAndFlush(
+                Movie.builder().title("ALIEN").description("test").classification(classification).build()
+        )).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Find Movie Ids After Id: Successful")
+    void testCanFindMovieIdsAfterId() {
+        // given
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        Movie first = movieRepository.save(Movie.builder().title("Saw").description("test").classification(classification).build());
+        Movie second = movieRepository.save(Movie.builder().title("Saw II").description("test").classification(classification).build());
+        Movie third = movieRepository.save(Movie.builder().title("Saw III").description("test").classification(classification).build());
+
+        // when
+        List<Long> found = movieRepository.findIdsAfter(first.getId(), Limit.of(1));
+
+        // then
+        assertThat(found).isEqualTo(List.of(second.getId()));
+        assertThat(movieRepository.findIdsAfter(second.getId(), Limit.of(5))).isEqualTo(List.of(third.getId()));
+    }
+
+    @Test
+    @DisplayName("Find Movies With Genres: Constant statement count")
+    void testFindMoviesWithGenresStatementCountIsConstant() {
+        // given
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        List<Genre> genres = genreRepository.saveAll(List.of(
+                Genre.builder().id(1L).name("Horror").build(),
+                Genre.builder().id(2L).name("Thriller").build()
+        ));
+
+        // when
+        long fewMovies = countStatementsLoadingPage(classification, genres, 2);
+        long manyMovies = countStatementsLoadingPage(classification, genres, 20);
+
+        // then
+        assertThat(fewMovies).isEqualTo(2);
+        assertThat(manyMovies).isEqualTo(fewMovies);
+    }
+
+    @Test
+    @DisplayName("Update Movie Genres: Only changed join rows written")
+    void testUpdatingGenresWritesOnlyDelta() {
+        // given
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        List<Genre> genres = genreRepository.saveAll(List.of(
+                Genre.builder().id(1L).name("Horror").build(),
+                Genre.builder().id(2L).name("Thriller").build(),
+                Genre.builder().id(3L).name("Comedy").build()
+        ));
+        Movie saved = movieRepository.save(Movie.builder()
+                .title("Saw")
+                .description("test")
+                .classification(classification)
+                .genres(new LinkedHashSet<>(genres.subList(0, 2)))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Movie movie = movieRepository.findWithDetailsById(saved.getId()).orElseThrow();
+        Genre added = entityManager.find(Genre.class, 3L);
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        movie.getGenres().removeIf(genre -> genre.getId().equals(1L));
+        movie.getGenres().add(added);
+        entityManager.flush();
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        entityManager.clear();
+        assertThat(movieRepository.findWithDetailsById(saved.getId()).orElseThrow()
+                .getGenres().stream().map(Genre::getId).toList()).isEqualTo(List.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Find Movie With Details: Rating stats joined in one statement")
+    void testFindMovieWithDetailsJoinsRatingStats() {
+        // given
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        List<Genre> genres = genreRepository.saveAll(List.of(
+                Genre.builder().id(1L).name("Horror").build(),
+                Genre.builder().id(2L).name("Thriller").build()
+        ));
+        Movie saved = movieRepository.save(Movie.builder()
+                .title("Saw")
+                .description("test")
+                .classification(classification)
+                .genres(new LinkedHashSet<>(genres))
+                .build());
+        Movie withoutStats = movieRepository.save(Movie.builder()
+                .title("Saw II")
+                .description("test")
+                .classification(classification)
+                .genres(new LinkedHashSet<>(genres))
+                .build());
+        MovieRatingStats stats = MovieRatingStats.of(saved);
+        stats.add((short) 4);
+        entityManager.persist(stats);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        Movie movie = movieRepository.findWithDetailsById(saved.getId()).orElseThrow();
+        List<Movie> movies = movieRepository.findAllWithGenresByIdIn(List.of(saved.getId(), withoutStats.getId()));
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(movie.getGenres().size()).isEqualTo(2);
+        assertThat(movie.getRatingStats().getAverageScore()).isEqualTo(4.0);
+        assertThat(movies.size()).isEqualTo(2);
+        assertThat(movies.get(0).getRatingStats().getReviewCount()).isEqualTo(1L);
+        assertThat(movies.get(1).getRatingStats()).isNull();
+    }
+
+    private long countStatementsLoadingPage(MovieClassification classification, List<Genre> genres, int count) {
+        movieRepository.deleteAll();
+        for (int i = 0; i < count; i++)
+            movieRepository.save(Movie.builder()
+                    .title("Saw " + count + "." + i)
+                    .description("test")
+                    .classification(classification)
+                    .genres(new LinkedHashSet<>(genres))
+                    .build());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Movie> movies = movieRepository.findAllWithGenresByIdIn(movieRepository.findIdsAfter(0L, Limit.of(count)));
+        movies.forEach(movie -> assertThat(movie.getGenres().size()).isEqualTo(genres.size()));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.Review;
+import com.example.moviemetricsv2.api.model.Role;
+import com.example.moviemetricsv2.api.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+/**
+ * Runs the native review statements against PostgreSQL, since H2 executes a different dialect of them.
+ * Every call commits on its own, like it does behind the service, so row locks and aborted transactions show.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IReviewRepositoryPostgresTest {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    IReviewRepository reviewRepository;
+    @Autowired
+    IMovieRepository movieRepository;
+    @Autowired
+    IMovieClassificationRepository movieClassificationRepository;
+    @Autowired
+    IUserRepository userRepository;
+    @Autowired
+    IRoleRepository roleRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Movie movie;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        movie = movieRepository.save(
+                Movie.builder().title("Saw").description("test").classification(classification).build()
+        );
+        Role role = roleRepository.save(
+                Role.builder().id(1L).name("TestRole").permissions(new ArrayList<>()).build()
+        );
+        author = userRepository.save(User.builder().email("test@test.com").password("test").role(role).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        movieClassificationRepository.deleteAll();
+    }
+
+    private Optional<Long> insert(Long movieId, Short score, String content) {
+        return transaction.execute(status -> reviewRepository.insertIfAbsent(movieId, author.getId(), score, content));
+    }
+
+    @Test
+    @DisplayName("Insert Review If Absent: Inserted")
+    void testCanInsertReview() {
+        // given
+        // when
+        Optional<Long> id = insert(movie.getId(), (short) 7, "test");
+
+        // then
+        assertThat(id.isPresent()).isTrue();
+        Review found = reviewRepository.findById(id.get()).orElseThrow();
+        assertThat(found.getScore()).isEqualTo((short) 7);
+        assertThat(found.getContent()).isEqualTo("test");
+    }
+
+    @Test
+    @DisplayName("Insert Review If Absent: Already exists, transaction still usable")
+    void testInsertReviewIsSkippedWhenReviewExists() {
+        // given
+        insert(movie.getId(), (short) 7, "test");
+
+        // when
+        Optional<Long> id = transaction.execute(status -> {
+            Optional<Long> inserted = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 3, "again");
+
+            // A failed statement would abort the transaction and make this query fail
+            reviewRepository.count();
+
+            return inserted;
+        });
+
+        // then
+        assertThat(id.isPresent()).isFalse();
+        assertThat(reviewRepository.count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Insert Review If Absent: Movie not found")
+    void testInsertReviewWillThrowWhenMovieNotFound() {
+        // given
+        Long movieId = movie.getId() + 1;
+
+        // when
+        // then
+        // ReviewService tells a missing movie apart from other violations by this state
+        assertThatThrownBy(() -> insert(movieId, (short) 7, "test"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .matches(ex -> ((DataIntegrityViolationException) ex).getMostSpecificCause() instanceof SQLException cause
+                        && "23503".equals(cause.getSQLState()));
+    }
+
+    @Test
+    @DisplayName("Update Review Of Author: Previous review returned")
+    void testCanUpdateReviewOfAuthor() {
+        // given
+        Long id = insert(movie.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = transaction.execute(status -> reviewRepository.updateOfAuthor(id, author.getId(), (short) 3, null));
+
+        // then
+        assertThat(previous.isPresent()).isTrue();
+        assertThat(previous.get().getMovie().getId()).isEqualTo(movie.getId());
+        assertThat(previous.get().getScore()).isEqualTo((short) 7);
+        assertThat(previous.get().getContent()).isEqualTo("test");
+        Review found = reviewRepository.findById(id).orElseThrow();
+        assertThat(found.getScore()).isEqualTo((short) 3);
+        assertThat(found.getContent()).isNull();
+    }
+
+    @Test
+    @DisplayName("Update Review Of Author: Not the author")
+    void testUpdateReviewOfAnotherAuthorIsSkipped() {
+        // given
+        Long id = insert(movie.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = transaction.execute(status -> reviewRepository.updateOfAuthor(id, author.getId() + 1, (short) 3, null));
+
+        // then
+        assertThat(previous.isPresent()).isFalse();
+        assertThat(reviewRepository.findById(id).orElseThrow().getScore()).isEqualTo((short) 7);
+    }
+
+    @Test
+    @DisplayName("Delete Review Of Author: Previous review returned")
+    void testCanDeleteReviewOfAuthor() {
+        // given
+        Long id = insert(movie.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = transaction.execute(status -> reviewRepository.deleteOfAuthor(id, author.getId()));
+
+        // then
+        assertThat(previous.isPresent()).isTrue();
+        assertThat(previous.get().getScore()).isEqualTo((short) 7);
+        assertThat(reviewRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Delete Review Of Author: Not the author")
+    void testDeleteReviewOfAnotherAuthorIsSkipped() {
+        // given
+        Long id = insert(movie.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = transaction.execute(status -> reviewRepository.deleteOfAuthor(id, author.getId() + 1));
+
+        // then
+        assertThat(previous.isPresent()).isFalse();
+        assertThat(reviewRepository.existsById(id)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Update Review: Concurrent edit waits and returns the committed score")
+    void testConcurrentUpdateReturnsCommittedScore() throws Exception {
+        // given
+        Long id = insert(movie.getId(), (short) 7, "test").orElseThrow();
+        CountDownLatch updated = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Optional<Review>> first = executor.submit(() -> transaction.execute(status -> {
+                Optional<Review> previous = reviewRepository.updateReturningPrevious(id, (short) 3, "first");
+                updated.countDown();
+                awaitQuietly(commit);
+                return previous;
+            }));
+            assertThat(updated.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            Future<Optional<Review>> second = executor.submit(() -> transaction.execute(status ->
+                    reviewRepository.updateReturningPrevious(id, (short) 5, "second")));
+            Thread.sleep(500);
+
+            // then
+            // The second edit is held by the first one's row lock, and then sees its score instead of the original 7
+            assertThat(second.isDone()).isFalse();
+            commit.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).orElseThrow().getScore()).isEqualTo((short) 7);
+            assertThat(second.get(10, TimeUnit.SECONDS).orElseThrow().getScore()).isEqualTo((short) 3);
+            assertThat(reviewRepository.findById(id).orElseThrow().getScore()).isEqualTo((short) 5);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.Review;
+import com.example.moviemetricsv2.api.model.Role;
+import com.example.moviemetricsv2.api.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+@DataJpaTest
+class IReviewRepositoryTest {
+    @Autowired
+    IReviewRepository reviewRepository;
+    @Autowired
+    IMovieRepository movieRepository;
+    @Autowired
+    IMovieClassificationRepository movieClassificationRepository;
+    @Autowired
+    IUserRepository userRepository;
+    @Autowired
+    IRoleRepository roleRepository;
+    @Autowired
+    TestEntityManager entityManager;
+
+    private Movie movie;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        MovieClassification classification = movieClassificationRepository.save(
+                MovieClassification.builder().id(1L).name("PG").build()
+        );
+        movie = movieRepository.save(
+                Movie.builder().title("Saw").description("test").classification(classification).build()
+        );
+        Role role = roleRepository.save(
+                Role.builder().id(1L).name("TestRole").permissions(new ArrayList<>()).build()
+        );
+        author = userRepository.save(User.builder().email("test@test.com").password("test").role(role).build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Insert Review If Absent: Inserted")
+    void testCanInsertReview() {
+        // given
+        // when
+        Optional<Long> id = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 7, "test");
+
+        // then
+        assertThat(id.isPresent()).isTrue();
+        Review found = reviewRepository.findById(id.get()).orElseThrow();
+        assertThat(found.getScore()).isEqualTo((short) 7);
+        assertThat(found.getContent()).isEqualTo("test");
+    }
+
+    @Test
+    @DisplayName("Insert Review If Absent: Already exists")
+    void testInsertReviewIsSkippedWhenReviewExists() {
+        // given
+        reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 7, "test");
+
+        // when
+        Optional<Long> id = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 3, "again");
+
+        // then
+        assertThat(id.isPresent()).isFalse();
+        assertThat(reviewRepository.count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Insert Review If Absent: Movie not found")
+    void testInsertReviewWillThrowWhenMovieNotFound() {
+        // given
+        Long movieId = movie.getId() + 1;
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewRepository.insertIfAbsent(movieId, author.getId(), (short) 7, "test"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Update Review Of Author: Previous review returned")
+    void testCanUpdateReviewOfAuthor() {
+        // given
+        Long id = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = reviewRepository.updateOfAuthor(id, author.getId(), (short) 3, null);
+
+        // then
+        assertThat(previous.isPresent()).isTrue();
+        assertThat(previous.get().getMovie().getId()).isEqualTo(movie.getId());
+        assertThat(previous.get().getScore()).isEqualTo((short) 7);
+        assertThat(previous.get().getContent()).isEqualTo("test");
+        Review found = reviewRepository.findById(id).orElseThrow();
+        assertThat(found.getScore()).isEqualTo((short) 3);
+        assertThat(found.getContent()).isNull();
+    }
+
+    @Test
+    @DisplayName("Update Review Of Author: Not the author")
+    void testUpdateReviewOfAnotherAuthorIsSkipped() {
+        // given
+        Long id = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = reviewRepository.updateOfAuthor(id, author.getId() + 1, (short) 3, null);
+
+        // then
+        assertThat(previous.isPresent()).isFalse();
+        assertThat(reviewRepository.findById(id).orElseThrow().getScore()).isEqualTo((short) 7);
+    }
+
+    @Test
+    @DisplayName("Delete Review Of Author: Previous review returned")
+    void testCanDeleteReviewOfAuthor() {
+        // given
+        Long id = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = reviewRepository.deleteOfAuthor(id, author.getId());
+
+        // then
+        assertThat(previous.isPresent()).isTrue();
+        assertThat(previous.get().getScore()).isEqualTo((short) 7);
+        assertThat(reviewRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Update Review: Any author, previous review returned")
+    void testCanUpdateReviewOfAnyAuthor() {
+        // given
+        Long id = reviewRepository.insertIfAbsent(movie.getId(), author.getId(), (short) 7, "test").orElseThrow();
+
+        // when
+        Optional<Review> previous = reviewRepository.updateReturningPrevious(id, (short) 2, "edited");
+
+        // then
+        assertThat(previous.isPresent()).isTrue();
+        assertThat(previous.get().getScore()).isEqualTo((short) 7);
+        assertThat(reviewRepository.findById(id).orElseThrow().getScore()).isEqualTo((short) 2);
+        assertThat(reviewRepository.deleteReturningPrevious(id + 1).isPresent()).isFalse();
+    }
+
+    // Named parameters of a native statement, in order of appearance
+    private static List<String> parameters(String sql) {
+        return Pattern.compile(":(\\w+)").matcher(sql).results().map(result -> result.group(1)).toList();
+    }
+
+    @Test
+    @DisplayName("PostgreSQL Insert: Conflict target is a unique constraint")
+    void testPostgresInsertConflictTargetIsUnique() {
+        // given
+        String sql = IReviewRepositoryCustomImpl.insertSql(true);
+        String target = sql.substring(sql.indexOf("on conflict (") + "on conflict (".length(), sql.indexOf(") do nothing"));
+
+        // when
+        // The migrations creating the constraint are shared, so H2 holds the same one PostgreSQL arbitrates on
+        List<?> rows = entityManager.getEntityManager().createNativeQuery(
+                "select tc.constraint_name, kcu.column_name from information_schema.table_constraints tc " +
+                        "join information_schema.key_column_usage kcu on kcu.constraint_schema = tc.constraint_schema " +
+                        "and kcu.constraint_name = tc.constraint_name " +
+                        "where lower(tc.table_name) = 'reviews' and tc.constraint_type = 'UNIQUE' " +
+                        "order by tc.constraint_name, kcu.ordinal_position").getResultList();
+        Map<String, List<String>> uniqueColumns = rows.stream()
+                .map(Object[].class::cast)
+                .collect(Collectors.groupingBy(row -> row[0].toString(), LinkedHashMap::new,
+                        Collectors.mapping(row -> row[1].toString().toLowerCase(Locale.ROOT), Collectors.toList())));
+
+        // then
+        assertThat(sql.startsWith(IReviewRepositoryCustomImpl.insertSql(false))).isTrue();
+        assertThat(uniqueColumns.containsValue(List.of(target.split(", ")))).isTrue();
+    }
+
+    @Test
+    @DisplayName("PostgreSQL Update And Delete: Same parameters and previous columns as H2")
+    void testPostgresStatementsMatchH2Statements() {
+        // given
+        // when
+        // then
+        for (boolean ofAuthor : new boolean[] {true, false}) {
+            String update = IReviewRepositoryCustomImpl.updateSql(true, ofAuthor);
+            String delete = IReviewRepositoryCustomImpl.deleteSql(true, ofAuthor);
+
+            // The H2 statements run in the tests above, so binding the same names means binding all PostgreSQL ones
+            assertThat(Set.copyOf(parameters(update))).isEqualTo(Set.copyOf(parameters(IReviewRepositoryCustomImpl.updateSql(false, ofAuthor))));
+            assertThat(Set.copyOf(parameters(delete))).isEqualTo(Set.copyOf(parameters(IReviewRepositoryCustomImpl.deleteSql(false, ofAuthor))));
+            assertThat(parameters(update).contains("authorId")).isEqualTo(ofAuthor);
+
+            // Rows are read back as movie_id, score, content, in that order
+            assertThat(update.endsWith("returning old.movie_id, old.score, old.content")).isTrue();
+            assertThat(delete.endsWith("returning movie_id, score, content")).isTrue();
+        }
+
+        // The author check sits in the locking read, so a review of another author is neither locked nor updated
+        String update = IReviewRepositoryCustomImpl.updateSql(true, true);
+        assertThat(update.indexOf(":authorId")).isLessThan(update.indexOf(" for update)"));
+        assertThat(update.indexOf(" for update)")).isLessThan(update.indexOf("update reviews r set"));
+    }
+}
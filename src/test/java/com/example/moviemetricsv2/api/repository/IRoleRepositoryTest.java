@@ -1,11 +1,18 @@
 package com.example.moviemetricsv2.api.repository;
 
+import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.model.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.transaction.TestTransaction;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -14,6 +21,16 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 class IRoleRepositoryTest {
     @Autowired
     IRoleRepository roleRepository;
+    @Autowired
+    IPermissionRepository permissionRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    // Rolled back rows must not linger in the shared second-level cache
+    @AfterEach
+    void evictSecondLevelCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
 
     @Test
     @DisplayName("Find Role By Name: Successful")
@@ -100,4 +117,38 @@ class IRoleRepositoryTest {
         // then
         assertThat(roleRepository.existsByNameIgnoreCase(name)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Find Role By Id: Served from second-level cache with permissions")
+    void testRoleIsCachedWithPermissions() {
+        // given
+        Permission permission = permissionRepository.save(Permission.builder().id(1L).name("DISPLAY").build());
+        Role role = roleRepository.save(Role.builder().id(1L).name("Cached").permissions(List.of(permission)).build());
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        TestTransaction.start();
+        roleRepository.findById(role.getId()).orElseThrow().getPermissions().size();
+        TestTransaction.end();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        TestTransaction.start();
+        Role found = roleRepository.findById(role.getId()).orElseThrow();
+        int permissions = found.getPermissions().size();
+        TestTransaction.end();
+
+        // then
+        assertThat(permissions).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(3);
+
+        TestTransaction.start();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+}
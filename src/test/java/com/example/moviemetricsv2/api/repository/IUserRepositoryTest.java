@@ -2,15 +2,19 @@ package com.example.moviemetricsv2.api.repository;
 
 import com.example.moviemetricsv2.api.model.Role;
 import com.example.moviemetricsv2.api.model.User;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 @DataJpaTest
 class IUserRepositoryTest {
@@ -19,6 +23,8 @@ class IUserRepositoryTest {
     IUserRepository userRepository;
     @Autowired
     IRoleRepository roleRepository;
+    @Autowired
+    TestEntityManager entityManager;
 
     @Test
     @DisplayName("Find User By Email: Successful")
@@ -43,6 +49,54 @@ class IUserRepositoryTest {
         assertThat(found.get().getEmail()).isEqualTo(user.getEmail());
     }
 
+    @Test
+    @DisplayName("Save User: Email differing only in case rejected")
+    void testSavingCaseVariantEmailWillThrow() {
+        // given
+        Role role = roleRepository.save(
+                Role.builder()
+                        .id(1L)
+                        .name("TestRole")
+                        .permissions(new ArrayList<>())
+                        .build()
+        );
+        userRepository.save(User.builder().email("test@test.com").password("test").role(role).build());
+        entityManager.flush();
+
+        // when
+        // then
+        assertThatThrownBy(() -> userRepository.saveAndFlush(
+                User.builder().email("TEST@test.com").password("test").role(role).build()
+        )).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Find User By Email: Role and permissions fetched, plain find stays lazy")
+    void testFindUserByEmailFetchesAuthorities() {
+        // given
+        String email = "test@test.com";
+        Role role = roleRepository.save(
+                Role.builder()
+                        .id(1L)
+                        .name("TestRole")
+                        .permissions(new ArrayList<>())
+                        .build()
+        );
+        User user = userRepository.save(User.builder().email(email).password("test").role(role).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        User byEmail = userRepository.findByEmailIgnoreCase(email).orElseThrow();
+        entityManager.clear();
+        User byId = userRepository.findById(user.getId()).orElseThrow();
+
+        // then
+        assertThat(Hibernate.isInitialized(byEmail.getRole())).isTrue();
+        assertThat(Hibernate.isInitialized(byEmail.getRole().getPermissions())).isTrue();
+        assertThat(Hibernate.isInitialized(byId.getRole())).isFalse();
+    }
+
     @Test
     @DisplayName("Find User By Email Case Insensitive: Successful")
     void testCanFindUserByEmailCaseInsensitive() {
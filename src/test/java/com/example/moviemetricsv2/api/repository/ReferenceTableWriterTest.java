@@ -0,0 +1,75 @@
+package com.example.moviemetricsv2.api.repository;
+
+import com.example.moviemetricsv2.api.components.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.moviemetricsv2.api.components.SqlStatementCounter")
+@Import(ReferenceTableWriter.class)
+class ReferenceTableWriterTest {
+    @Autowired
+    ReferenceTableWriter referenceTableWriter;
+    @Autowired
+    TestEntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.close();
+    }
+
+    // Read natively, so the rows never reach the second-level cache other tests of this context share
+    private List<?> genreNames() {
+        return entityManager.getEntityManager().createNativeQuery("select name from genres order by id").getResultList();
+    }
+
+    @Test
+    @DisplayName("Insert All If Absent: Inserted")
+    void testCanInsertAll() {
+        // given
+        // when
+        referenceTableWriter.insertAllIfAbsent("genres", List.of("id", "name"),
+                List.of(List.of(1L, "Horror"), List.of(2L, "Comedy")));
+
+        // then
+        assertThat(genreNames()).isEqualTo(List.of("Horror", "Comedy"));
+    }
+
+    @Test
+    @DisplayName("Insert All If Absent: Stored row kept")
+    void testInsertAllSkipsStoredRow() {
+        // given
+        referenceTableWriter.insertAllIfAbsent("genres", List.of("id", "name"), List.of(List.of(1L, "Horror")));
+
+        // when
+        referenceTableWriter.insertAllIfAbsent("genres", List.of("id", "name"),
+                List.of(List.of(1L, "Horror"), List.of(2L, "Comedy")));
+
+        // then
+        assertThat(genreNames()).isEqualTo(List.of("Horror", "Comedy"));
+    }
+
+    @Test
+    @DisplayName("Insert All If Absent: Counted as one statement")
+    void testInsertAllIsCountedOnce() {
+        // given
+        SqlStatementCounter.open();
+
+        // when
+        referenceTableWriter.insertAllIfAbsent("genres", List.of("id", "name"),
+                List.of(List.of(1L, "Horror"), List.of(2L, "Comedy"), List.of(3L, "Drama")));
+
+        // then
+        assertThat(SqlStatementCounter.count()).isEqualTo(1L);
+        assertThat(genreNames()).isEqualTo(List.of("Horror", "Comedy", "Drama"));
+    }
+}
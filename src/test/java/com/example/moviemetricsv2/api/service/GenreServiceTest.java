@@ -1,22 +1,28 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.Genre;
 import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.repository.IGenreRepository;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import com.example.moviemetricsv2.api.repository.IPermissionRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 
@@ -24,13 +30,15 @@ class GenreServiceTest {
     private AutoCloseable autoCloseable;
     @Mock
     private IGenreRepository genreRepository;
+    @Mock
+    private ReferenceTableWriter referenceTableWriter;
 
     private GenreService genreService;
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        genreService = new GenreService(genreRepository);
+        genreService = new GenreService(genreRepository, referenceTableWriter);
     }
 
     @AfterEach
@@ -39,90 +47,125 @@ class GenreServiceTest {
     }
 
     @Test
-    @DisplayName("Find Or Create: Found")
-    void canFindOrCreateWhenFound() {
+    @DisplayName("Get All Permissions: Successful")
+    void getAllPermissions() {
         // given
-        String name = "Action";
-        given(genreRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.of(Genre.builder().name(name).build()));
+        given(genreRepository.findAll())
+                .willReturn(new ArrayList<>());
 
         // when
-        genreService.findOrCreate(1L, name);
+        genreService.getAll();
 
         // then
-        verify(genreRepository).findByNameIgnoreCase(name);
+        verify(genreRepository).findAll();
     }
 
     @Test
-    @DisplayName("Find Or Create: Created")
-    void canFindOrCreateWhenNotFound() {
+    @DisplayName("Get All Genres: Served from cache")
+    void getAllGenresIsCached() {
         // given
-        String name = "Action";
-        given(genreRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.empty());
+        given(genreRepository.findAll())
+                .willReturn(List.of(Genre.builder().id(1L).name("Action").build()));
 
         // when
-        genreService.findOrCreate(1L, name);
+        genreService.getAll();
+        genreService.getAll();
 
         // then
-        ArgumentCaptor<Genre> genreArgumentCaptor = ArgumentCaptor.forClass(Genre.class);
+        verify(genreRepository, times(1)).findAll();
+        assertThat(genreService.exists(1L)).isTrue();
+        assertThat(genreService.exists(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Exists: Reloaded after create")
+    void existsIsReloadedAfterCreate() {
+        // given
+        String name = "Comedy";
+        given(genreRepository.findAll())
+                .willReturn(List.of(Genre.builder().id(1L).name("Action").build()));
 
-        verify(genreRepository).findByNameIgnoreCase(name);
-        verify(genreRepository).save(genreArgumentCaptor.capture());
+        assertThat(genreService.exists(2L)).isFalse();
 
-        Genre capturedGenre = genreArgumentCaptor.getValue();
+        given(genreRepository.findAll())
+                .willReturn(List.of(Genre.builder().id(1L).name("Action").build()),
+                        List.of(Genre.builder().id(1L).name("Action").build(), Genre.builder().id(2L).name(name).build()));
 
-        assertThat(capturedGenre.getName()).isEqualTo(name);
+        // when
+        genreService.createAllIfNotFound(List.of(Genre.builder().id(2L).name(name).build()));
+
+        // then
+        assertThat(genreService.exists(2L)).isTrue();
     }
 
     @Test
-    @DisplayName("Create If Not Found: Found")
-    void canCreateIfNotFoundWhenFound() {
+    @DisplayName("Get All By Id: Duplicates removed")
+    void getAllByIdRemovesDuplicates() {
         // given
-        String name = "Action";
-        given(genreRepository.existsByNameIgnoreCase(name))
-                .willReturn(true);
+        given(genreRepository.findAll())
+                .willReturn(List.of(Genre.builder().id(1L).name("Action").build(), Genre.builder().id(2L).name("Comedy").build()));
 
         // when
-        genreService.createIfNotFound(1L, name);
+        List<Genre> found = genreService.getAllById(List.of(2L, 1L, 2L));
 
         // then
-        verify(genreRepository).existsByNameIgnoreCase(name);
+        assertThat(found.stream().map(Genre::getId).toList()).isEqualTo(List.of(2L, 1L));
+        verify(genreRepository, never()).findAllById(any());
     }
 
     @Test
-    @DisplayName("Create If Not Found: Not Found")
-    void canCreateIfNotFoundWhenNotFound() {
+    @DisplayName("Get All By Id: Every missing id reported")
+    void getAllByIdReportsEveryMissingId() {
         // given
-        String name = "Action";
-        given(genreRepository.existsByNameIgnoreCase(name))
-                .willReturn(false);
+        given(genreRepository.findAll())
+                .willReturn(List.of(Genre.builder().id(1L).name("Action").build()));
+        given(genreRepository.findAllById(any()))
+                .willReturn(List.of());
 
         // when
-        genreService.createIfNotFound(1L, name);
-
         // then
-        ArgumentCaptor<Genre> genreArgumentCaptor = ArgumentCaptor.forClass(Genre.class);
+        assertThatThrownBy(() -> genreService.getAllById(List.of(1L, 3L, 4L)))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining(NotFoundException.genresNotFoundByIds(List.of(3L, 4L)).getMessage());
+        verify(genreRepository).findAllById(Set.of(3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Create All If Not Found: Only missing inserted")
+    void canCreateAllIfNotFound() {
+        // given
+        Genre action = Genre.builder().id(1L).name("Action").build();
+        Genre comedy = Genre.builder().id(2L).name("Comedy").build();
 
-        verify(genreRepository).existsByNameIgnoreCase(name);
-        verify(genreRepository).save(genreArgumentCaptor.capture());
+        given(genreRepository.findAll())
+                .willReturn(List.of(action), List.of(action, comedy));
 
-        Genre capturedGenre = genreArgumentCaptor.getValue();
+        // when
+        List<Genre> all = genreService.createAllIfNotFound(List.of(
+                Genre.builder().id(1L).name("ACTION").build(),
+                Genre.builder().id(2L).name("Comedy").build()
+        ));
 
-        assertThat(capturedGenre.getName()).isEqualTo(name);
+        // then
+        verify(referenceTableWriter).insertAllIfAbsent("genres", List.of("id", "name"), List.of(List.of(2L, "Comedy")));
+        verify(genreRepository, never()).saveAll(any());
+        assertThat(all.stream().map(Genre::getName).toList()).isEqualTo(List.of("Action", "Comedy"));
+        assertThat(genreService.exists(2L)).isTrue();
     }
 
     @Test
-    @DisplayName("Get All Permissions: Successful")
-    void getAllPermissions() {
+    @DisplayName("Create All If Not Found: Nothing missing")
+    void createAllIfNotFoundWillNotWriteWhenNothingMissing() {
         // given
         given(genreRepository.findAll())
-                .willReturn(new ArrayList<>());
+                .willReturn(List.of(Genre.builder().id(1L).name("Action").build()));
 
         // when
+        genreService.createAllIfNotFound(List.of(Genre.builder().id(1L).name("Action").build()));
         genreService.getAll();
 
         // then
-        verify(genreRepository).findAll();
+        verify(referenceTableWriter, never()).insertAllIfAbsent(any(), any(), any());
+        verify(genreRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+}
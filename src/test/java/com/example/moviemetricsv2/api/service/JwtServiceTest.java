@@ -0,0 +1,142 @@
+package com.example.moviemetricsv2.api.service;
+
+import com.example.moviemetricsv2.api.model.Permission;
+import com.example.moviemetricsv2.api.model.Role;
+import com.example.moviemetricsv2.api.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new MockEnvironment().withProperty("jwt.stateless", "true"));
+    }
+
+    private UserDetails createUserDetails(String email) {
+        return User.builder()
+                .email(email)
+                .role(Role.builder().permissions(List.of()).build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Parse Token: Successful")
+    void canParseGeneratedToken() {
+        // given
+        UserDetails userDetails = createUserDetails("user@user.com");
+        String token = jwtService.generateToken(userDetails);
+
+        // when
+        Claims claims = jwtService.parseToken(token);
+
+        // then
+        assertThat(claims.getSubject()).isEqualTo(userDetails.getUsername());
+        assertThat(jwtService.isTokenValid(claims, userDetails)).isTrue();
+        assertThat(jwtService.isTokenValid(claims, createUserDetails("other@other.com"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Parse Token: Tampered signature")
+    void parsingWillThrowWhenSignatureIsInvalid() {
+        // given
+        String token = jwtService.generateToken(createUserDetails("user@user.com"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // when
+        // then
+        assertThatThrownBy(() -> jwtService.parseToken(tampered))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    @DisplayName("Extract Principal: Successful")
+    void canExtractPrincipalFromClaims() {
+        // given
+        User user = User.builder()
+                .id(7L)
+                .email("user@user.com")
+                .role(Role.builder()
+                        .permissions(List.of(Permission.builder().name("READ_MOVIES").build()))
+                        .build())
+                .build();
+        Claims claims = jwtService.parseToken(jwtService.generateToken(user));
+
+        // when
+        User principal = jwtService.extractPrincipal(claims);
+
+        // then
+        assertThat(jwtService.isStateless()).isTrue();
+        assertThat(jwtService.hasPrincipalClaims(claims)).isTrue();
+        assertThat(principal.getId()).isEqualTo(user.getId());
+        assertThat(principal.getUsername()).isEqualTo(user.getEmail());
+        assertThat(principal.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("READ_MOVIES");
+    }
+
+    @Test
+    @DisplayName("Generate Token: Stateless tokens expire sooner")
+    void statelessTokensUseShortExpiration() {
+        // given
+        JwtService statefulJwtService = new JwtService(new MockEnvironment());
+        UserDetails userDetails = createUserDetails("user@user.com");
+
+        // when
+        Claims stateless = jwtService.parseToken(jwtService.generateToken(userDetails));
+        Claims stateful = statefulJwtService.parseToken(statefulJwtService.generateToken(userDetails));
+
+        // then
+        assertThat(stateless.getExpiration().getTime() - stateless.getIssuedAt().getTime()).isEqualTo(5 * 60 * 1000L);
+        assertThat(stateful.getExpiration().getTime() - stateful.getIssuedAt().getTime()).isEqualTo(120 * 60 * 1000L);
+    }
+
+    @Test
+    @DisplayName("Generate Token: Principal claims only in stateless tokens")
+    void statefulTokensCarryNoPrincipalClaims() {
+        // given
+        JwtService statefulJwtService = new JwtService(new MockEnvironment());
+        User user = User.builder()
+                .id(7L)
+                .email("user@user.com")
+                .role(Role.builder()
+                        .permissions(List.of(Permission.builder().name("READ_MOVIES").build()))
+                        .build())
+                .build();
+
+        // when
+        Claims claims = statefulJwtService.parseToken(statefulJwtService.generateToken(user));
+
+        // then
+        assertThat(claims.get(JwtService.USER_ID_CLAIM)).isNull();
+        assertThat(claims.get(JwtService.AUTHORITIES_CLAIM)).isNull();
+        assertThat(jwtService.hasPrincipalClaims(claims)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Has Principal Claims: Long-lived token not trusted")
+    void longLivedTokensAreNotTrustedStatelessly() {
+        // given
+        JwtService statefulJwtService = new JwtService(new MockEnvironment());
+        String token = statefulJwtService.generateToken(
+                Map.of(JwtService.USER_ID_CLAIM, 7L, JwtService.AUTHORITIES_CLAIM, List.of("READ_MOVIES")),
+                createUserDetails("user@user.com"));
+
+        // when
+        Claims claims = jwtService.parseToken(token);
+
+        // then
+        assertThat(jwtService.hasPrincipalClaims(claims)).isFalse();
+    }
+}
@@ -2,19 +2,21 @@ package com.example.moviemetricsv2.api.service;
 
 import com.example.moviemetricsv2.api.model.MovieClassification;
 import com.example.moviemetricsv2.api.repository.IMovieClassificationRepository;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 
@@ -22,13 +24,15 @@ class MovieClassificationServiceTest {
     private AutoCloseable autoCloseable;
     @Mock
     private IMovieClassificationRepository movieClassificationRepository;
+    @Mock
+    private ReferenceTableWriter referenceTableWriter;
 
     private MovieClassificationService movieClassificationService;
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        movieClassificationService = new MovieClassificationService(movieClassificationRepository);
+        movieClassificationService = new MovieClassificationService(movieClassificationRepository, referenceTableWriter);
     }
 
     @AfterEach
@@ -37,94 +41,40 @@ class MovieClassificationServiceTest {
     }
 
     @Test
-    @DisplayName("Find Or Create: Found")
-    void canFindOrCreateWhenFound() {
-        // given
-        String name = "PG";
-        String brief = "Parental Guideline Suggested";
-        given(movieClassificationRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.of(MovieClassification.builder().name(name).build()));
-
-        // when
-        movieClassificationService.findOrCreate(1L, name, brief);
-
-        // then
-        verify(movieClassificationRepository).findByNameIgnoreCase(name);
-    }
-
-    @Test
-    @DisplayName("Find Or Create: Created")
-    void canFindOrCreateWhenNotFound() {
-        // given
-        String name = "PG";
-        String brief = "Parental Guideline Suggested";
-        given(movieClassificationRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.empty());
-
-        // when
-        movieClassificationService.findOrCreate(1L, name, brief);
-
-        // then
-        ArgumentCaptor<MovieClassification> movieClassificationArgumentCaptor = ArgumentCaptor.forClass(MovieClassification.class);
-
-        verify(movieClassificationRepository).findByNameIgnoreCase(name);
-        verify(movieClassificationRepository).save(movieClassificationArgumentCaptor.capture());
-
-        MovieClassification capturedMovieClassification = movieClassificationArgumentCaptor.getValue();
-
-        assertThat(capturedMovieClassification.getName()).isEqualTo(name);
-    }
-
-    @Test
-    @DisplayName("Create If Not Found: Found")
-    void canCreateIfNotFoundWhenFound() {
+    @DisplayName("Get All Classifications: Successful")
+    void getAllClassifications() {
         // given
-        String name = "PG";
-        String brief = "Parental Guideline Suggested";
-        given(movieClassificationRepository.existsByNameIgnoreCase(name))
-                .willReturn(true);
+        given(movieClassificationRepository.findAll())
+                .willReturn(new ArrayList<>());
 
         // when
-        movieClassificationService.createIfNotFound(1L, name, brief);
+        movieClassificationService.getAll();
 
         // then
-        verify(movieClassificationRepository).existsByNameIgnoreCase(name);
+        verify(movieClassificationRepository).findAll();
     }
 
     @Test
-    @DisplayName("Create If Not Found: Not Found")
-    void canCreateIfNotFoundWhenNotFound() {
+    @DisplayName("Create All If Not Found: Only missing inserted")
+    void canCreateAllIfNotFound() {
         // given
-        String name = "PG";
-        String brief = "Parental Guideline Suggested";
-        given(movieClassificationRepository.existsByNameIgnoreCase(name))
-                .willReturn(false);
-
-        // when
-        movieClassificationService.createIfNotFound(1L, name, brief);
-
-        // then
-        ArgumentCaptor<MovieClassification> movieClassificationArgumentCaptor = ArgumentCaptor.forClass(MovieClassification.class);
-
-        verify(movieClassificationRepository).existsByNameIgnoreCase(name);
-        verify(movieClassificationRepository).save(movieClassificationArgumentCaptor.capture());
+        MovieClassification general = MovieClassification.builder().id(1L).name("General Audience").brief("G").build();
+        MovieClassification restricted = MovieClassification.builder().id(2L).name("Restricted").brief("R").build();
 
-        MovieClassification capturedMovieClassification = movieClassificationArgumentCaptor.getValue();
-
-        assertThat(capturedMovieClassification.getName()).isEqualTo(name);
-    }
-
-    @Test
-    @DisplayName("Get All Classifications: Successful")
-    void getAllClassifications() {
-        // given
         given(movieClassificationRepository.findAll())
-                .willReturn(new ArrayList<>());
+                .willReturn(List.of(general), List.of(general, restricted));
 
         // when
-        movieClassificationService.getAll();
+        List<MovieClassification> all = movieClassificationService.createAllIfNotFound(List.of(
+                MovieClassification.builder().id(1L).name("GENERAL AUDIENCE").brief("G").build(),
+                MovieClassification.builder().id(2L).name("Restricted").brief("R").build()
+        ));
 
         // then
-        verify(movieClassificationRepository).findAll();
+        verify(referenceTableWriter).insertAllIfAbsent("movie_classifications", List.of("id", "name", "brief"),
+                List.of(List.of(2L, "Restricted", "R")));
+        verify(movieClassificationRepository, never()).saveAll(any());
+        assertThat(all.size()).isEqualTo(2);
+        assertThat(movieClassificationService.exists(2L)).isTrue();
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,40 @@
 package com.example.moviemetricsv2.api.service;
 
 import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.dto.MoviePatchDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.Genre;
 import com.example.moviemetricsv2.api.model.Movie;
 import com.example.moviemetricsv2.api.model.MovieClassification;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
 import com.example.moviemetricsv2.api.repository.IGenreRepository;
 import com.example.moviemetricsv2.api.repository.IMovieClassificationRepository;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
 import com.example.moviemetricsv2.api.repository.IMovieRepository;
+import com.example.moviemetricsv2.api.response.MovieImportResponse;
 import com.example.moviemetricsv2.api.response.MovieResponse;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 
@@ -35,11 +47,21 @@ class MovieServiceTest {
     private IMovieClassificationRepository movieClassificationRepository;
     @Mock
     private IGenreRepository genreRepository;
+    @Mock
+    private IMovieRatingStatsRepository ratingStatsRepository;
+    @Mock
+    private MovieClassificationService movieClassificationService;
+    @Mock
+    private GenreService genreService;
     private MovieService movieService;
 
     private Movie createMovie() {
+        return createMovie(1L);
+    }
+
+    private Movie createMovie(Long id) {
         return Movie.builder()
-                .id(1L)
+                .id(id)
                 .title("Test")
                 .description("Test description")
                 .classification(
@@ -48,7 +70,7 @@ class MovieServiceTest {
                                 .name("PG")
                                 .build()
                 )
-                .genres(new ArrayList<>())
+                .genres(new LinkedHashSet<>())
                 .build();
     }
 
@@ -64,7 +86,7 @@ class MovieServiceTest {
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        movieService = new MovieService(movieRepository, movieClassificationRepository, genreRepository);
+        movieService = new MovieService(movieRepository, movieClassificationRepository, genreRepository, ratingStatsRepository, movieClassificationService, genreService);
     }
 
     @AfterEach
@@ -81,7 +103,7 @@ class MovieServiceTest {
         given(movieRepository.existsByTitleIgnoreCase(movieDto.getTitle()))
                 .willReturn(false);
 
-        given(movieClassificationRepository.existsById(movieDto.getClassificationId()))
+        given(movieClassificationService.exists(movieDto.getClassificationId()))
                 .willReturn(true);
 
         // when
@@ -95,6 +117,8 @@ class MovieServiceTest {
         Movie capturedMovie = movieArgumentCaptor.getValue();
 
         assertThat(capturedMovie.getTitle()).isEqualTo(movieDto.getTitle());
+        assertThat(capturedMovie.getRatingStats().getReviewCount()).isEqualTo(0L);
+        verify(ratingStatsRepository).save(capturedMovie.getRatingStats());
     }
 
     @Test
@@ -107,11 +131,11 @@ class MovieServiceTest {
         given(movieRepository.existsByTitleIgnoreCase(movieDto.getTitle()))
                 .willReturn(false);
 
-        given(movieClassificationRepository.existsById(movieDto.getClassificationId()))
+        given(movieClassificationService.exists(movieDto.getClassificationId()))
                 .willReturn(true);
 
-        given(genreRepository.existsById(1L))
-                .willReturn(true);
+        given(genreService.getAllById(List.of(1L)))
+                .willReturn(List.of(Genre.builder().id(1L).build()));
 
         // when
         movieService.create(movieDto);
@@ -171,11 +195,11 @@ class MovieServiceTest {
         given(movieRepository.existsByTitleIgnoreCase(movieDto.getTitle()))
                 .willReturn(false);
 
-        given(movieClassificationRepository.existsById(movieDto.getClassificationId()))
+        given(movieClassificationService.exists(movieDto.getClassificationId()))
                 .willReturn(true);
 
-        given(genreRepository.existsById(1L))
-                .willReturn(false);
+        given(genreService.getAllById(List.of(1L)))
+                .willThrow(NotFoundException.genresNotFoundByIds(List.of(1L)));
 
         // when
         // then
@@ -184,6 +208,37 @@ class MovieServiceTest {
                 .hasMessageContaining(NotFoundException.genreNotFoundById(1L).getMessage());
     }
 
+    @Test
+    @DisplayName("Create Movies: Rejected row does not take its title")
+    void createAllKeepsTitleOfRejectedRowFree() {
+        // given
+        MovieDto withMissingClassification = createMovieDto();
+        withMissingClassification.setClassificationId(99L);
+
+        Map<Integer, MovieDto> movieDtos = new LinkedHashMap<>();
+        movieDtos.put(0, withMissingClassification);
+        movieDtos.put(1, createMovieDto());
+
+        given(movieRepository.findTakenTitles(any()))
+                .willReturn(List.of());
+
+        given(movieClassificationService.exists(99L))
+                .willReturn(false);
+
+        given(movieClassificationService.exists(1L))
+                .willReturn(true);
+
+        // when
+        List<MovieImportResponse> results = movieService.createAll(movieDtos);
+
+        // then
+        assertThat(results.stream().map(MovieImportResponse::getStatus).toList()).isEqualTo(List.of(
+                HttpStatus.NOT_FOUND.value(),
+                HttpStatus.CREATED.value()
+        ));
+        verify(movieRepository).saveAll(any());
+    }
+
     @Test
     @DisplayName("Get Movie: Successful")
     void canGetMovieById() {
@@ -193,7 +248,7 @@ class MovieServiceTest {
                 createMovie()
         );
 
-        given(movieRepository.findById(id))
+        given(movieRepository.findWithDetailsById(id))
                 .willReturn(movieOptional);
 
         // when
@@ -209,7 +264,7 @@ class MovieServiceTest {
         // given
         Long id = 2L;
 
-        given(movieRepository.findById(id))
+        given(movieRepository.findWithDetailsById(id))
                 .willReturn(Optional.empty());
 
         // when
@@ -263,37 +318,84 @@ class MovieServiceTest {
         verify(movieRepository).findAll();
     }
 
+    @Test
+    @DisplayName("Get Movies Page: Successful")
+    void getMoviesPage() {
+        // given
+        List<Long> ids = List.of(3L, 4L);
+
+        given(movieRepository.findIdsAfter(2L, Limit.of(2)))
+                .willReturn(ids);
+
+        // when
+        movieService.getPage(2L, 2);
+
+        // then
+        verify(movieRepository).findAllWithGenresByIdIn(ids);
+    }
+
+    @Test
+    @DisplayName("Get Movies Page: Empty page skips loading")
+    void getEmptyMoviesPage() {
+        // given
+        given(movieRepository.findIdsAfter(2L, Limit.of(2)))
+                .willReturn(List.of());
+
+        // when
+        List<Movie> found = movieService.getPage(2L, 2);
+
+        // then
+        assertThat(found.isEmpty()).isTrue();
+        verify(movieRepository, never()).findAllWithGenresByIdIn(any());
+    }
+
     @Test
     @DisplayName("Update Movie: Successful no genres")
     void canUpdateMovie() {
         // given
         Long id = 2L;
-        MovieDto movieDto = createMovieDto();
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().title("Other").build();
 
-        given(movieRepository.existsById(2L))
-                .willReturn(true);
+        given(movieRepository.findWithDetailsById(2L))
+                .willReturn(Optional.of(createMovie(2L)));
 
-        given(movieRepository.findByTitleIgnoreCase(movieDto.getTitle()))
-                .willReturn(Optional.empty());
-
-        given(movieClassificationRepository.existsById(movieDto.getClassificationId()))
-                .willReturn(true);
+        given(movieRepository.existsByTitleIgnoreCase(moviePatchDto.getTitle()))
+                .willReturn(false);
 
         // when
-        movieService.update(id, movieDto);
+        Movie updated = movieService.update(id, moviePatchDto);
 
         // then
-        ArgumentCaptor<Movie> movieArgumentCaptor = ArgumentCaptor.forClass(Movie.class);
+        verify(movieRepository).findWithDetailsById(id);
+        verify(movieRepository).existsByTitleIgnoreCase(moviePatchDto.getTitle());
+        verify(movieRepository, never()).save(any());
+
+        assertThat(updated.getId()).isEqualTo(id);
+        assertThat(updated.getTitle()).isEqualTo(moviePatchDto.getTitle());
+        assertThat(updated.getDescription()).isEqualTo("Test description");
+    }
 
-        verify(movieRepository).existsById(id);
-        verify(movieRepository).findByTitleIgnoreCase(movieDto.getTitle());
+    @Test
+    @DisplayName("Update Movie: Only given fields checked")
+    void updatingMovieSkipsMissingFields() {
+        // given
+        Long id = 2L;
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().title("TEST").description("Other description").build();
 
-        verify(movieRepository).save(movieArgumentCaptor.capture());
+        given(movieRepository.findWithDetailsById(2L))
+                .willReturn(Optional.of(createMovie(2L)));
 
-        Movie capturedMovie = movieArgumentCaptor.getValue();
+        // when
+        Movie updated = movieService.update(id, moviePatchDto);
 
-        assertThat(capturedMovie.getId()).isEqualTo(id);
-        assertThat(capturedMovie.getTitle()).isEqualTo(movieDto.getTitle());
+        // then
+        verify(movieRepository, never()).existsByTitleIgnoreCase(any());
+        verify(movieClassificationService, never()).exists(any());
+        verify(genreService, never()).getAllById(any());
+
+        assertThat(updated.getTitle()).isEqualTo("TEST");
+        assertThat(updated.getDescription()).isEqualTo(moviePatchDto.getDescription());
+        assertThat(updated.getClassification().getId()).isEqualTo(1L);
     }
 
     @Test
@@ -301,36 +403,24 @@ class MovieServiceTest {
     void canUpdateMovieWithGenres() {
         // given
         Long id = 2L;
-        MovieDto movieDto = createMovieDto();
-        movieDto.setGenreIds(List.of(1L));
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().genreIds(List.of(2L, 3L)).build();
+        Movie movie = createMovie(2L);
+        movie.getGenres().add(Genre.builder().id(1L).build());
+        movie.getGenres().add(Genre.builder().id(2L).build());
 
-        given(movieRepository.existsById(2L))
-                .willReturn(true);
-
-        given(movieRepository.findByTitleIgnoreCase(movieDto.getTitle()))
-                .willReturn(Optional.empty());
+        given(movieRepository.findWithDetailsById(2L))
+                .willReturn(Optional.of(movie));
 
-        given(movieClassificationRepository.existsById(movieDto.getClassificationId()))
-                .willReturn(true);
-
-        given(genreRepository.existsById(1L))
-                .willReturn(true);
+        given(genreService.getAllById(Set.of(3L)))
+                .willReturn(List.of(Genre.builder().id(3L).build()));
 
         // when
-        movieService.update(id, movieDto);
+        Movie updated = movieService.update(id, moviePatchDto);
 
         // then
-        ArgumentCaptor<Movie> movieArgumentCaptor = ArgumentCaptor.forClass(Movie.class);
-
-        verify(movieRepository).existsById(id);
-        verify(movieRepository).findByTitleIgnoreCase(movieDto.getTitle());
-
-        verify(movieRepository).save(movieArgumentCaptor.capture());
-
-        Movie capturedMovie = movieArgumentCaptor.getValue();
+        verify(genreService).getAllById(Set.of(3L));
 
-        assertThat(capturedMovie.getId()).isEqualTo(id);
-        assertThat(capturedMovie.getTitle()).isEqualTo(movieDto.getTitle());
+        assertThat(updated.getGenres().stream().map(Genre::getId).toList()).isEqualTo(List.of(2L, 3L));
     }
 
     @Test
@@ -338,13 +428,13 @@ class MovieServiceTest {
     void updatingMovieWillThrowWhenMovieNotFound() {
         // given
         Long id = 2L;
-        MovieDto movieDto = createMovieDto();
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().title("Other").build();
 
-        given(movieRepository.findById(2L)).willReturn(Optional.empty());
+        given(movieRepository.findWithDetailsById(2L)).willReturn(Optional.empty());
 
         // when
         // then
-        assertThatThrownBy(() -> movieService.update(id, movieDto))
+        assertThatThrownBy(() -> movieService.update(id, moviePatchDto))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining(NotFoundException.movieNotFoundById(id).getMessage());
     }
@@ -354,19 +444,19 @@ class MovieServiceTest {
     void updatingMovieWillThrowWhenTitleIsTaken() {
         // given
         Long id = 2L;
-        MovieDto movieDto = createMovieDto();
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().title("Other").build();
 
-        given(movieRepository.existsById(2L))
-                .willReturn(true);
+        given(movieRepository.findWithDetailsById(2L))
+                .willReturn(Optional.of(createMovie(2L)));
 
-        given(movieRepository.findByTitleIgnoreCase(movieDto.getTitle()))
-                .willReturn(Optional.of(createMovie()));
+        given(movieRepository.existsByTitleIgnoreCase(moviePatchDto.getTitle()))
+                .willReturn(true);
 
         // when
         // then
-        assertThatThrownBy(() -> movieService.update(id, movieDto))
+        assertThatThrownBy(() -> movieService.update(id, moviePatchDto))
                 .isInstanceOf(DataConflictException.class)
-                .hasMessageContaining(DataConflictException.titleTaken(movieDto.getTitle()).getMessage());
+                .hasMessageContaining(DataConflictException.titleTaken(moviePatchDto.getTitle()).getMessage());
     }
 
     @Test
@@ -374,22 +464,19 @@ class MovieServiceTest {
     void updatingMovieWillThrowWhenMovieClassificationNotFound() {
         // given
         Long id = 2L;
-        MovieDto movieDto = createMovieDto();
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().classificationId(2L).build();
 
-        given(movieRepository.existsById(2L))
-                .willReturn(true);
+        given(movieRepository.findWithDetailsById(2L))
+                .willReturn(Optional.of(createMovie(2L)));
 
-        given(movieRepository.existsByTitleIgnoreCase(movieDto.getTitle()))
+        given(movieClassificationService.exists(moviePatchDto.getClassificationId()))
                 .willReturn(false);
 
-        given(movieClassificationRepository.findById(movieDto.getClassificationId()))
-                .willReturn(Optional.empty());
-
         // when
         // then
-        assertThatThrownBy(() -> movieService.update(id, movieDto))
+        assertThatThrownBy(() -> movieService.update(id, moviePatchDto))
                 .isInstanceOf(NotFoundException.class)
-                .hasMessageContaining(NotFoundException.movieClassificationNotFoundById(movieDto.getClassificationId()).getMessage());
+                .hasMessageContaining(NotFoundException.movieClassificationNotFoundById(moviePatchDto.getClassificationId()).getMessage());
     }
 
     @Test
@@ -397,24 +484,17 @@ class MovieServiceTest {
     void updatingMovieWillThrowWhenGenreNotFound() {
         // given
         Long id = 2L;
-        MovieDto movieDto = createMovieDto();
-        movieDto.setGenreIds(List.of(1L));
+        MoviePatchDto moviePatchDto = MoviePatchDto.builder().genreIds(List.of(1L)).build();
 
-        given(movieRepository.existsById(2L))
-                .willReturn(true);
+        given(movieRepository.findWithDetailsById(2L))
+                .willReturn(Optional.of(createMovie(2L)));
 
-        given(movieRepository.findByTitleIgnoreCase(movieDto.getTitle()))
-                .willReturn(Optional.empty());
-
-        given(movieClassificationRepository.existsById(movieDto.getClassificationId()))
-                .willReturn(true);
-
-        given(genreRepository.existsById(1L))
-                .willReturn(false);
+        given(genreService.getAllById(Set.of(1L)))
+                .willThrow(NotFoundException.genresNotFoundByIds(List.of(1L)));
 
         // when
         // then
-        assertThatThrownBy(() -> movieService.update(id, movieDto))
+        assertThatThrownBy(() -> movieService.update(id, moviePatchDto))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining(NotFoundException.genreNotFoundById(1L).getMessage());
 
@@ -426,13 +506,17 @@ class MovieServiceTest {
         // given
         Long id = 2L;
 
-        given(movieRepository.findById(id))
-                .willReturn(Optional.of(Movie.builder().build()));
+        Movie movie = createMovie(id);
+        movie.setRatingStats(MovieRatingStats.of(movie));
+
+        given(movieRepository.findWithDetailsById(id))
+                .willReturn(Optional.of(movie));
 
         // when
         movieService.delete(id);
 
         // then
+        verify(ratingStatsRepository).delete(movie.getRatingStats());
         verify(movieRepository).deleteById(id);
     }
 
@@ -442,7 +526,7 @@ class MovieServiceTest {
         // given
         Long id = 2L;
 
-        given(movieRepository.findById(id))
+        given(movieRepository.findWithDetailsById(id))
                 .willReturn(Optional.empty());
 
         // when
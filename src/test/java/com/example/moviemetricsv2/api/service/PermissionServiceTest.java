@@ -2,19 +2,21 @@ package com.example.moviemetricsv2.api.service;
 
 import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.repository.IPermissionRepository;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
-import java.util.Optional;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 
@@ -22,13 +24,15 @@ class PermissionServiceTest {
     private AutoCloseable autoCloseable;
     @Mock
     private IPermissionRepository permissionRepository;
+    @Mock
+    private ReferenceTableWriter referenceTableWriter;
 
     private PermissionService permissionService;
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        permissionService = new PermissionService(permissionRepository);
+        permissionService = new PermissionService(permissionRepository, referenceTableWriter);
     }
 
     @AfterEach
@@ -37,90 +41,39 @@ class PermissionServiceTest {
     }
 
     @Test
-    @DisplayName("Find Or Create: Found")
-    void canFindOrCreateWhenFound() {
-        // given
-        String name = "DISPLAY_USERS";
-        given(permissionRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.of(Permission.builder().name(name).build()));
-
-        // when
-        permissionService.findOrCreate(1L, name);
-
-        // then
-        verify(permissionRepository).findByNameIgnoreCase(name);
-    }
-
-    @Test
-    @DisplayName("Find Or Create: Created")
-    void canFindOrCreateWhenNotFound() {
-        // given
-        String name = "DISPLAY_USERS";
-        given(permissionRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.empty());
-
-        // when
-        permissionService.findOrCreate(1L, name);
-
-        // then
-        ArgumentCaptor<Permission> permissionArgumentCaptor = ArgumentCaptor.forClass(Permission.class);
-
-        verify(permissionRepository).findByNameIgnoreCase(name);
-        verify(permissionRepository).save(permissionArgumentCaptor.capture());
-
-        Permission capturedPermission = permissionArgumentCaptor.getValue();
-
-        assertThat(capturedPermission.getName()).isEqualTo(name);
-    }
-
-    @Test
-    @DisplayName("Create If Not Found: Found")
-    void canCreateIfNotFoundWhenFound() {
+    @DisplayName("Get All Permissions: Successful")
+    void getAllPermissions() {
         // given
-        String name = "DISPLAY_USERS";
-        given(permissionRepository.existsByNameIgnoreCase(name))
-                .willReturn(true);
+        given(permissionRepository.findAll())
+                .willReturn(new ArrayList<>());
 
         // when
-        permissionService.createIfNotFound(1L, name);
+        permissionService.getAll();
 
         // then
-        verify(permissionRepository).existsByNameIgnoreCase(name);
+        verify(permissionRepository).findAll();
     }
 
     @Test
-    @DisplayName("Create If Not Found: Not Found")
-    void canCreateIfNotFoundWhenNotFound() {
+    @DisplayName("Create All If Not Found: Only missing inserted")
+    void canCreateAllIfNotFound() {
         // given
-        String name = "DISPLAY_USERS";
-        given(permissionRepository.existsByNameIgnoreCase(name))
-                .willReturn(false);
-
-        // when
-        permissionService.createIfNotFound(1L, name);
-
-        // then
-        ArgumentCaptor<Permission> permissionArgumentCaptor = ArgumentCaptor.forClass(Permission.class);
-
-        verify(permissionRepository).existsByNameIgnoreCase(name);
-        verify(permissionRepository).save(permissionArgumentCaptor.capture());
+        Permission display = Permission.builder().id(1L).name("DISPLAY_MOVIES").build();
+        Permission create = Permission.builder().id(2L).name("CREATE_MOVIES").build();
 
-        Permission capturedPermission = permissionArgumentCaptor.getValue();
-
-        assertThat(capturedPermission.getName()).isEqualTo(name);
-    }
-
-    @Test
-    @DisplayName("Get All Permissions: Successful")
-    void getAllPermissions() {
-        // given
         given(permissionRepository.findAll())
-                .willReturn(new ArrayList<>());
+                .willReturn(List.of(display), List.of(display, create));
 
         // when
-        permissionService.getAll();
+        List<Permission> all = permissionService.createAllIfNotFound(List.of(
+                Permission.builder().id(1L).name("display_movies").build(),
+                Permission.builder().id(2L).name("CREATE_MOVIES").build()
+        ));
 
         // then
-        verify(permissionRepository).findAll();
+        verify(referenceTableWriter).insertAllIfAbsent("permissions", List.of("id", "name"), List.of(List.of(2L, "CREATE_MOVIES")));
+        verify(permissionRepository, never()).saveAll(any());
+        assertThat(all.size()).isEqualTo(2);
+        assertThat(permissionService.exists(2L)).isTrue();
     }
-}
\ No newline at end of file
+}
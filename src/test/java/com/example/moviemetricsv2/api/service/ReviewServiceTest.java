@@ -0,0 +1,342 @@
+package com.example.moviemetricsv2.api.service;
+
+import com.example.moviemetricsv2.api.dto.ReviewDto;
+import com.example.moviemetricsv2.api.exception.BadRequestException;
+import com.example.moviemetricsv2.api.exception.DataConflictException;
+import com.example.moviemetricsv2.api.exception.NotFoundException;
+import com.example.moviemetricsv2.api.exception.PermissionException;
+import com.example.moviemetricsv2.api.model.EReviewSort;
+import com.example.moviemetricsv2.api.model.Movie;
+import com.example.moviemetricsv2.api.model.MovieRatingStats;
+import com.example.moviemetricsv2.api.model.Review;
+import com.example.moviemetricsv2.api.model.User;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
+import com.example.moviemetricsv2.api.repository.IMovieRepository;
+import com.example.moviemetricsv2.api.repository.IReviewRepository;
+import com.example.moviemetricsv2.api.repository.IUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ReviewServiceTest {
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private IReviewRepository reviewRepository;
+    @Mock
+    private IMovieRepository movieRepository;
+    @Mock
+    private IUserRepository userRepository;
+    @Mock
+    private IMovieRatingStatsRepository ratingStatsRepository;
+    private ReviewService reviewService;
+
+    private final User author = User.builder().id(1L).email("test@test.com").build();
+    private final Movie movie = Movie.builder().id(1L).title("Test").build();
+    private MovieRatingStats ratingStats;
+
+    private Review createReview(short score) {
+        return Review.builder()
+                .id(1L)
+                .movie(movie)
+                .author(author)
+                .score(score)
+                .build();
+    }
+
+    private ReviewDto createReviewDto(short score) {
+        return ReviewDto.builder()
+                .movieId(movie.getId())
+                .score(score)
+                .content("Test content")
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        reviewService = new ReviewService(reviewRepository, movieRepository, userRepository, ratingStatsRepository);
+
+        ratingStats = MovieRatingStats.of(movie);
+        ratingStats.add((short) 4);
+
+        given(ratingStatsRepository.findByMovieIdForUpdate(movie.getId()))
+                .willReturn(Optional.of(ratingStats));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(author, null));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        autoCloseable.close();
+    }
+
+    @Test
+    @DisplayName("Create Review: Rating stats updated")
+    void creatingReviewUpdatesRatingStats() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 2);
+
+        given(reviewRepository.insertIfAbsent(movie.getId(), author.getId(), reviewDto.getScore(), reviewDto.getContent()))
+                .willReturn(Optional.of(2L));
+
+        // when
+        reviewService.create(reviewDto);
+
+        // then
+        assertThat(ratingStats.getReviewCount()).isEqualTo(2L);
+        assertThat(ratingStats.getAverageScore()).isEqualTo(3.0);
+        assertThat(ratingStats.getHistogram()[1]).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Create Review: Already exists")
+    void creatingReviewWillThrowWhenReviewExists() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 2);
+
+        given(reviewRepository.insertIfAbsent(movie.getId(), author.getId(), reviewDto.getScore(), reviewDto.getContent()))
+                .willReturn(Optional.empty());
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.create(reviewDto))
+                .isInstanceOf(DataConflictException.class)
+                .hasMessageContaining(DataConflictException.reviewExists(author.getId(), movie.getId()).getMessage());
+        assertThat(ratingStats.getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Create Review: Movie not found")
+    void creatingReviewWillThrowWhenMovieNotFound() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 2);
+
+        given(reviewRepository.insertIfAbsent(movie.getId(), author.getId(), reviewDto.getScore(), reviewDto.getContent()))
+                .willThrow(new DataIntegrityViolationException("reviews_movie_id_fkey", new SQLException("reviews_movie_id_fkey", "23503")));
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.create(reviewDto))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining(NotFoundException.movieNotFoundById(movie.getId()).getMessage());
+        assertThat(ratingStats.getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Create Review: Other integrity violation rethrown")
+    void creatingReviewRethrowsOtherIntegrityViolations() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 2);
+
+        given(reviewRepository.insertIfAbsent(movie.getId(), author.getId(), reviewDto.getScore(), reviewDto.getContent()))
+                .willThrow(new DataIntegrityViolationException("reviews_score_check", new SQLException("reviews_score_check", "23514")));
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.create(reviewDto))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Update Review: Rating stats updated")
+    void updatingReviewUpdatesRatingStats() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 5);
+
+        given(reviewRepository.updateReturningPrevious(1L, reviewDto.getScore(), reviewDto.getContent()))
+                .willReturn(Optional.of(createReview((short) 4)));
+
+        // when
+        reviewService.update(1L, reviewDto);
+
+        // then
+        assertThat(ratingStats.getReviewCount()).isEqualTo(1L);
+        assertThat(ratingStats.getAverageScore()).isEqualTo(5.0);
+        assertThat(ratingStats.getHistogram()[3]).isEqualTo(0L);
+        assertThat(ratingStats.getHistogram()[4]).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Delete Review: Rating stats updated")
+    void deletingReviewUpdatesRatingStats() {
+        // given
+        given(reviewRepository.deleteOfAuthor(1L, author.getId()))
+                .willReturn(Optional.of(createReview((short) 4)));
+
+        // when
+        reviewService.deleteOwn(1L);
+
+        // then
+        assertThat(ratingStats.getReviewCount()).isEqualTo(0L);
+        assertThat(ratingStats.getAverageScore()).isNull();
+        assertThat(ratingStats.getHistogram()[3]).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Delete Review: Not found")
+    void deletingReviewWillThrowWhenReviewNotFound() {
+        // given
+        given(reviewRepository.deleteReturningPrevious(1L))
+                .willReturn(Optional.empty());
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.delete(1L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining(NotFoundException.reviewNotFoundById(1L).getMessage());
+        assertThat(ratingStats.getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Update Own Review: Rating stats updated")
+    void updatingOwnReviewUpdatesRatingStats() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 5);
+
+        given(reviewRepository.updateOfAuthor(1L, author.getId(), reviewDto.getScore(), reviewDto.getContent()))
+                .willReturn(Optional.of(createReview((short) 4)));
+
+        // when
+        Review updated = reviewService.updateOwn(1L, reviewDto);
+
+        // then
+        assertThat(updated.getScore()).isEqualTo((short) 5);
+        assertThat(updated.getContent()).isEqualTo(reviewDto.getContent());
+        assertThat(ratingStats.getReviewCount()).isEqualTo(1L);
+        assertThat(ratingStats.getAverageScore()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Update Own Review: Not the author")
+    void updatingOwnReviewWillThrowWhenNotTheAuthor() {
+        // given
+        ReviewDto reviewDto = createReviewDto((short) 5);
+
+        given(reviewRepository.updateOfAuthor(1L, author.getId(), reviewDto.getScore(), reviewDto.getContent()))
+                .willReturn(Optional.empty());
+
+        given(reviewRepository.existsById(1L))
+                .willReturn(true);
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.updateOwn(1L, reviewDto))
+                .isInstanceOf(PermissionException.class);
+        assertThat(ratingStats.getAverageScore()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("Delete Own Review: Not found")
+    void deletingOwnReviewWillThrowWhenReviewNotFound() {
+        // given
+        given(reviewRepository.deleteOfAuthor(1L, author.getId()))
+                .willReturn(Optional.empty());
+
+        given(reviewRepository.existsById(1L))
+                .willReturn(false);
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.deleteOwn(1L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining(NotFoundException.reviewNotFoundById(1L).getMessage());
+        assertThat(ratingStats.getReviewCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of Movie: Sorted by score after cursor")
+    void canGetPageOfMovieSortedByScore() {
+        // given
+        given(movieRepository.existsById(movie.getId()))
+                .willReturn(true);
+
+        String after = ReviewService.cursorOf(EReviewSort.Score, 3L, (short) 4);
+
+        // when
+        reviewService.getPageOfMovie(movie.getId(), EReviewSort.Score, after, 10);
+
+        // then
+        verify(reviewRepository).findScorePageOfMovie(movie.getId(), (short) 4, 3L, Limit.of(10));
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of User: Most recent first page")
+    void canGetFirstPageOfUserSortedByRecent() {
+        // given
+        given(userRepository.existsById(author.getId()))
+                .willReturn(true);
+
+        // when
+        reviewService.getPageOfUser(author.getId(), EReviewSort.Recent, null, 10);
+
+        // then
+        verify(reviewRepository).findAllByAuthorIdAndIdLessThanOrderByIdDesc(author.getId(), Long.MAX_VALUE, Limit.of(10));
+    }
+
+    @Test
+    @DisplayName("Get Own Reviews: Author not looked up")
+    void canGetOwnPageWithoutCheckingAuthor() {
+        // given
+        // when
+        reviewService.getOwnPage(author.getId(), EReviewSort.Recent, null, 10);
+
+        // then
+        verify(userRepository, never()).existsById(author.getId());
+        verify(reviewRepository).findAllByAuthorIdAndIdLessThanOrderByIdDesc(author.getId(), Long.MAX_VALUE, Limit.of(10));
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of Movie: Sorted by score first page")
+    void canGetFirstPageOfMovieSortedByScore() {
+        // given
+        given(movieRepository.existsById(movie.getId()))
+                .willReturn(true);
+
+        // when
+        reviewService.getPageOfMovie(movie.getId(), EReviewSort.Score, null, 10);
+
+        // then
+        verify(reviewRepository).findScorePageOfMovie(movie.getId(), (short) (MovieRatingStats.MAX_SCORE + 1), Long.MAX_VALUE, Limit.of(10));
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of Movie: Cursor of another sort rejected")
+    void gettingPageOfMovieWillThrowWhenCursorSortDiffers() {
+        // given
+        String after = ReviewService.cursorOf(EReviewSort.Id, 3L, (short) 4);
+
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.getPageOfMovie(movie.getId(), EReviewSort.Score, after, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(BadRequestException.invalidCursor(after, EReviewSort.Score.name()).getMessage());
+    }
+
+    @Test
+    @DisplayName("Get Reviews Of User: Malformed cursor rejected")
+    void gettingPageOfUserWillThrowWhenCursorIsMalformed() {
+        // given
+        // when
+        // then
+        assertThatThrownBy(() -> reviewService.getPageOfUser(author.getId(), EReviewSort.Id, "12", 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
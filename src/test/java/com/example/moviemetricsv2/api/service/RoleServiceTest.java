@@ -1,18 +1,19 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.cache.UserDetailsCache;
+import com.example.moviemetricsv2.api.model.Permission;
 import com.example.moviemetricsv2.api.model.Role;
 import com.example.moviemetricsv2.api.repository.IRoleRepository;
+import com.example.moviemetricsv2.api.repository.ReferenceTableWriter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.BDDMockito.given;
@@ -23,13 +24,17 @@ class RoleServiceTest {
     private AutoCloseable autoCloseable;
     @Mock
     private IRoleRepository roleRepository;
+    @Mock
+    private ReferenceTableWriter referenceTableWriter;
+    @Mock
+    private UserDetailsCache userDetailsCache;
 
     private RoleService roleService;
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        roleService = new RoleService(roleRepository);
+        roleService = new RoleService(roleRepository, referenceTableWriter, userDetailsCache);
     }
 
     @AfterEach
@@ -38,90 +43,41 @@ class RoleServiceTest {
     }
 
     @Test
-    @DisplayName("Find Or Create: Found")
-    void canFindOrCreateWhenFound() {
-        // given
-        String name = "USER";
-        given(roleRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.of(Role.builder().name(name).build()));
-
-        // when
-        roleService.findOrCreate( 1L, name, List.of());
-
-        // then
-        verify(roleRepository).findByNameIgnoreCase(name);
-    }
-
-    @Test
-    @DisplayName("Find Or Create: Created")
-    void canFindOrCreateWhenNotFound() {
-        // given
-        String name = "USER";
-        given(roleRepository.findByNameIgnoreCase(name))
-                .willReturn(Optional.empty());
-
-        // when
-        roleService.findOrCreate(1L, name, List.of());
-
-        // then
-        ArgumentCaptor<Role> roleArgumentCaptor = ArgumentCaptor.forClass(Role.class);
-
-        verify(roleRepository).findByNameIgnoreCase(name);
-        verify(roleRepository).save(roleArgumentCaptor.capture());
-
-        Role capturedRole = roleArgumentCaptor.getValue();
-
-        assertThat(capturedRole.getName()).isEqualTo(name);
-    }
-
-    @Test
-    @DisplayName("Create If Not Found: Found")
-    void canCreateIfNotFoundWhenFound() {
+    @DisplayName("Get All Roles: Successful")
+    void getAllRoles() {
         // given
-        String name = "USER";
-        given(roleRepository.existsByNameIgnoreCase(name))
-                .willReturn(true);
+        given(roleRepository.findAll())
+                .willReturn(new ArrayList<>());
 
         // when
-        roleService.createIfNotFound(1L, name, List.of());
+        roleService.getAll();
 
         // then
-        verify(roleRepository).existsByNameIgnoreCase(name);
+        verify(roleRepository).findAll();
     }
 
     @Test
-    @DisplayName("Create If Not Found: Not Found")
-    void canCreateIfNotFoundWhenNotFound() {
+    @DisplayName("Create All If Not Found: Role and permission rows inserted")
+    void canCreateAllIfNotFound() {
         // given
-        String name = "USER";
-        given(roleRepository.existsByNameIgnoreCase(name))
-                .willReturn(false);
-
-        // when
-        roleService.createIfNotFound(1L, name, List.of());
-
-        // then
-        ArgumentCaptor<Role> roleArgumentCaptor = ArgumentCaptor.forClass(Role.class);
-
-        verify(roleRepository).existsByNameIgnoreCase(name);
-        verify(roleRepository).save(roleArgumentCaptor.capture());
+        Role user = Role.builder().id(1L).name("User").permissions(List.of()).build();
+        Role admin = Role.builder()
+                .id(3L)
+                .name("Admin")
+                .permissions(List.of(Permission.builder().id(1L).build(), Permission.builder().id(2L).build()))
+                .build();
 
-        Role capturedRole = roleArgumentCaptor.getValue();
-
-        assertThat(capturedRole.getName()).isEqualTo(name);
-    }
-
-    @Test
-    @DisplayName("Get All Roles: Successful")
-    void getAllRoles() {
-        // given
         given(roleRepository.findAll())
-                .willReturn(new ArrayList<>());
+                .willReturn(List.of(user), List.of(user, admin));
 
         // when
-        roleService.getAll();
+        List<Role> all = roleService.createAllIfNotFound(List.of(user, admin));
 
         // then
-        verify(roleRepository).findAll();
+        verify(referenceTableWriter).insertAllIfAbsent("roles", List.of("id", "name"), List.of(List.of(3L, "Admin")));
+        verify(referenceTableWriter).insertAllIfAbsent("role_permissions", List.of("role_id", "permission_id"),
+                List.of(List.of(3L, 1L), List.of(3L, 2L)));
+        verify(userDetailsCache).invalidateAll();
+        assertThat(all.size()).isEqualTo(2);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.example.moviemetricsv2.api.service;
 
+import com.example.moviemetricsv2.api.cache.UserDetailsCache;
 import com.example.moviemetricsv2.api.dto.UserDto;
+import com.example.moviemetricsv2.api.dto.UserPatchDto;
 import com.example.moviemetricsv2.api.exception.DataConflictException;
 import com.example.moviemetricsv2.api.exception.NotFoundException;
 import com.example.moviemetricsv2.api.model.ERole;
@@ -23,7 +25,9 @@ import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 
@@ -36,6 +40,8 @@ class UserServiceTest {
     private IRoleRepository roleRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserDetailsCache userDetailsCache;
 
     private UserService userService;
 
@@ -66,7 +72,7 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        userService = new UserService(userRepository, roleRepository, passwordEncoder);
+        userService = new UserService(userRepository, roleRepository, passwordEncoder, userDetailsCache);
     }
 
     @AfterEach
@@ -83,8 +89,8 @@ class UserServiceTest {
         given(userRepository.existsByEmailIgnoreCase(userDto.getEmail()))
                 .willReturn(false);
 
-        given(roleRepository.existsById(userDto.getRoleId()))
-                .willReturn(true);
+        given(roleRepository.findById(userDto.getRoleId()))
+                .willReturn(Optional.of(Role.builder().id(userDto.getRoleId()).build()));
 
         // when
         userService.create(userDto);
@@ -143,7 +149,7 @@ class UserServiceTest {
                 createUser()
         );
 
-        given(userRepository.findById(id))
+        given(userRepository.findWithRoleById(id))
                 .willReturn(userOptional);
 
         // when
@@ -159,7 +165,7 @@ class UserServiceTest {
         // given
         Long id = 2L;
 
-        given(userRepository.findById(id))
+        given(userRepository.findWithRoleById(id))
                 .willReturn(Optional.empty());
 
         // when
@@ -218,31 +224,56 @@ class UserServiceTest {
     void canUpdateUser() {
         // given
         Long id = 2L;
-        UserDto userDto = createUserDto();
+        UserPatchDto userPatchDto = UserPatchDto.builder().email("other@test.com").password("TestPassword2").build();
 
-        given(userRepository.existsById(2L))
-                .willReturn(true);
+        given(userRepository.findWithRoleById(2L))
+                .willReturn(Optional.of(createUser()));
 
-        given(userRepository.findByEmailIgnoreCase(userDto.getEmail()))
-                .willReturn(Optional.empty());
+        given(userRepository.existsByEmailIgnoreCase(userPatchDto.getEmail()))
+                .willReturn(false);
 
-        given(roleRepository.existsById(userDto.getRoleId())).willReturn(true);
+        given(passwordEncoder.encode(userPatchDto.getPassword()))
+                .willReturn("encoded");
 
         // when
-        userService.update(id, userDto);
+        User updated = userService.update(id, userPatchDto);
 
         // then
-        ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).findWithRoleById(id);
+        verify(userRepository).existsByEmailIgnoreCase(userPatchDto.getEmail());
+        verify(userRepository, never()).save(any());
 
-        verify(userRepository).existsById(id);
-        verify(userRepository).findByEmailIgnoreCase(userDto.getEmail());
+        assertThat(updated.getEmail()).isEqualTo(userPatchDto.getEmail());
+        assertThat(updated.getPassword()).isEqualTo("encoded");
 
-        verify(userRepository).save(userArgumentCaptor.capture());
+        verify(userDetailsCache).invalidate(createUser().getEmail());
+        verify(userDetailsCache).invalidate(userPatchDto.getEmail());
+    }
 
-        User capturedUser = userArgumentCaptor.getValue();
+    @Test
+    @DisplayName("Update User: Role change does not hash password")
+    void updatingUserRoleSkipsPasswordHashing() {
+        // given
+        Long id = 2L;
+        UserPatchDto userPatchDto = UserPatchDto.builder().roleId(2L).build();
+        Role role = Role.builder().id(2L).name(ERole.Admin.getName()).build();
 
-        assertThat(capturedUser.getId()).isEqualTo(id);
-        assertThat(capturedUser.getEmail()).isEqualTo(userDto.getEmail());
+        given(userRepository.findWithRoleById(2L))
+                .willReturn(Optional.of(createUser()));
+
+        given(roleRepository.findById(userPatchDto.getRoleId()))
+                .willReturn(Optional.of(role));
+
+        // when
+        User updated = userService.update(id, userPatchDto);
+
+        // then
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).existsByEmailIgnoreCase(any());
+
+        assertThat(updated.getRole()).isEqualTo(role);
+        assertThat(updated.getEmail()).isEqualTo(createUser().getEmail());
+        assertThat(updated.getPassword()).isEqualTo(createUser().getPassword());
     }
 
     @Test
@@ -250,13 +281,13 @@ class UserServiceTest {
     void updatingUserWillThrowWhenUserNotFound() {
         // given
         Long id = 2L;
-        UserDto userDto = createUserDto();
+        UserPatchDto userPatchDto = UserPatchDto.builder().roleId(2L).build();
 
-        given(userRepository.findById(2L)).willReturn(Optional.empty());
+        given(userRepository.findWithRoleById(2L)).willReturn(Optional.empty());
 
         // when
         // then
-        assertThatThrownBy(() -> userService.update(id, userDto))
+        assertThatThrownBy(() -> userService.update(id, userPatchDto))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining(NotFoundException.userNotFoundById(id).getMessage());
     }
@@ -266,19 +297,19 @@ class UserServiceTest {
     void updatingUserWillThrowWhenEmailIsTaken() {
         // given
         Long id = 2L;
-        UserDto userDto = createUserDto();
-
-        given(userRepository.existsById(2L))
-                .willReturn(true);
+        UserPatchDto userPatchDto = UserPatchDto.builder().email("other@test.com").build();
 
-        given(userRepository.findByEmailIgnoreCase(userDto.getEmail()))
+        given(userRepository.findWithRoleById(2L))
                 .willReturn(Optional.of(createUser()));
 
+        given(userRepository.existsByEmailIgnoreCase(userPatchDto.getEmail()))
+                .willReturn(true);
+
         // when
         // then
-        assertThatThrownBy(() -> userService.update(id, userDto))
+        assertThatThrownBy(() -> userService.update(id, userPatchDto))
                 .isInstanceOf(DataConflictException.class)
-                .hasMessageContaining(DataConflictException.emailTaken(userDto.getEmail()).getMessage());
+                .hasMessageContaining(DataConflictException.emailTaken(userPatchDto.getEmail()).getMessage());
     }
 
     @Test
@@ -286,22 +317,19 @@ class UserServiceTest {
     void updatingUserWillThrowWhenRoleNotFound() {
         // given
         Long id = 2L;
-        UserDto userDto = createUserDto();
+        UserPatchDto userPatchDto = UserPatchDto.builder().roleId(2L).build();
 
-        given(userRepository.existsById(2L))
-                .willReturn(true);
-
-        given(userRepository.existsByEmailIgnoreCase(userDto.getEmail()))
-                .willReturn(false);
+        given(userRepository.findWithRoleById(2L))
+                .willReturn(Optional.of(createUser()));
 
-        given(roleRepository.findById(userDto.getRoleId()))
+        given(roleRepository.findById(userPatchDto.getRoleId()))
                 .willReturn(Optional.empty());
 
         // when
         // then
-        assertThatThrownBy(() -> userService.update(id, userDto))
+        assertThatThrownBy(() -> userService.update(id, userPatchDto))
                 .isInstanceOf(NotFoundException.class)
-                .hasMessageContaining(NotFoundException.roleNotFoundById(userDto.getRoleId()).getMessage());
+                .hasMessageContaining(NotFoundException.roleNotFoundById(userPatchDto.getRoleId()).getMessage());
     }
 
     @Test
@@ -310,7 +338,7 @@ class UserServiceTest {
         // given
         Long id = 2L;
 
-        given(userRepository.findById(id))
+        given(userRepository.findWithRoleById(id))
                 .willReturn(Optional.of(createUser()));
 
         // when
@@ -318,6 +346,7 @@ class UserServiceTest {
 
         // then
         verify(userRepository).deleteById(id);
+        verify(userDetailsCache).invalidate(createUser().getEmail());
     }
 
     @Test
@@ -326,7 +355,7 @@ class UserServiceTest {
         // given
         Long id = 2L;
 
-        given(userRepository.findById(id))
+        given(userRepository.findWithRoleById(id))
                 .willReturn(Optional.empty());
 
         // when
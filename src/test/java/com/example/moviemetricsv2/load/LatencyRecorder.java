@@ -0,0 +1,67 @@
+package com.example.moviemetricsv2.load;
+
+import java.util.*;
+
+/**
+ * Per-client latency samples, merged once the run is over so recording never contends between clients.
+ */
+class LatencyRecorder {
+    private final Map<String, long[]> samples = new HashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Map<String, Integer> errors = new HashMap<>();
+
+    void record(String endpoint, long nanos, boolean error) {
+        long[] endpointSamples = samples.computeIfAbsent(endpoint, key -> new long[1024]);
+        int count = counts.getOrDefault(endpoint, 0);
+
+        if (count == endpointSamples.length) {
+            endpointSamples = Arrays.copyOf(endpointSamples, count * 2);
+            samples.put(endpoint, endpointSamples);
+        }
+
+        endpointSamples[count] = nanos;
+        counts.put(endpoint, count + 1);
+
+        if (error)
+            errors.merge(endpoint, 1, Integer::sum);
+    }
+
+    static Map<String, Map<String, Object>> summarize(Collection<LatencyRecorder> recorders, double durationSeconds) {
+        Map<String, long[]> merged = new TreeMap<>();
+        Map<String, Integer> mergedErrors = new HashMap<>();
+
+        for (LatencyRecorder recorder : recorders) {
+            recorder.counts.forEach((endpoint, count) -> merged.merge(endpoint, Arrays.copyOf(recorder.samples.get(endpoint), count),
+                    (left, right) -> {
+                        long[] both = Arrays.copyOf(left, left.length + right.length);
+                        System.arraycopy(right, 0, both, left.length, right.length);
+                        return both;
+                    }));
+            recorder.errors.forEach((endpoint, count) -> mergedErrors.merge(endpoint, count, Integer::sum));
+        }
+
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+
+        merged.forEach((endpoint, latencies) -> {
+            Arrays.sort(latencies);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", latencies.length);
+            stats.put("errors", mergedErrors.getOrDefault(endpoint, 0));
+            stats.put("throughputPerSecond", latencies.length / durationSeconds);
+            stats.put("p50Millis", percentile(latencies, 0.50));
+            stats.put("p99Millis", percentile(latencies, 0.99));
+            stats.put("p999Millis", percentile(latencies, 0.999));
+            stats.put("maxMillis", latencies[latencies.length - 1] / 1_000_000.0);
+            report.put(endpoint, stats);
+        });
+
+        return report;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
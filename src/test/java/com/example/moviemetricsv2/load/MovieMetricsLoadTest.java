@@ -0,0 +1,317 @@
+package com.example.moviemetricsv2.load;
+
+import com.example.moviemetricsv2.MovieMetricsV2Application;
+import com.example.moviemetricsv2.api.dto.MovieDto;
+import com.example.moviemetricsv2.api.model.*;
+import com.example.moviemetricsv2.api.repository.IMovieRatingStatsRepository;
+import com.example.moviemetricsv2.api.repository.IMovieRepository;
+import com.example.moviemetricsv2.api.repository.IReviewRepository;
+import com.example.moviemetricsv2.api.repository.IRoleRepository;
+import com.example.moviemetricsv2.api.repository.IUserRepository;
+import com.example.moviemetricsv2.api.request.AuthenticationRequest;
+import com.example.moviemetricsv2.api.response.AuthenticationResponse;
+import com.example.moviemetricsv2.api.service.MovieService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+/**
+ * Seeds users, movies and reviews, then replays a weighted mix of calls from many concurrent clients against
+ * the embedded server and writes per-endpoint throughput and latency percentiles to a JSON report.
+ * <p>
+ * Excluded from the normal build; run with {@code mvn test -Pload}. Every knob is a system property, e.g.
+ * {@code -Dload.clients=200 -Dload.durationSeconds=60 -Dload.mix=login:5,browse:55,reviews:30,write:10}; add
+ * {@code -Dspring.profiles.active=virtual} to compare the virtual-thread server against the platform-thread default.
+ */
+@Tag("load")
+@AutoConfigureTestDatabase
+@SpringBootTest(classes = MovieMetricsV2Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class MovieMetricsLoadTest {
+    private static final String PASSWORD = "LoadPassword1";
+    private static final int LOGIN_ATTEMPTS = 5;
+
+    private final int users = Integer.getInteger("load.users", 50);
+    private final int movies = Integer.getInteger("load.movies", 500);
+    private final int reviews = Integer.getInteger("load.reviews", 2_000);
+    private final int clients = Integer.getInteger("load.clients", 64);
+    private final int durationSeconds = Integer.getInteger("load.durationSeconds", 30);
+    private final String mix = System.getProperty("load.mix", "login:5,browse:55,reviews:30,write:10");
+    private final Path reportPath = Path.of(System.getProperty("load.report", "target/load-report.json"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    IUserRepository userRepository;
+    @Autowired
+    IRoleRepository roleRepository;
+    @Autowired
+    IMovieRepository movieRepository;
+    @Autowired
+    IReviewRepository reviewRepository;
+    @Autowired
+    IMovieRatingStatsRepository movieRatingStatsRepository;
+    @Autowired
+    MovieService movieService;
+    @Autowired
+    PasswordEncoder passwordEncoder;
+    @Autowired
+    Environment environment;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+    private List<String> emails;
+    private List<Long> movieIds;
+
+    @Test
+    @DisplayName("Load: Mixed traffic")
+    public void runMixedTraffic() throws Exception {
+        // given
+        seed();
+        NavigableMap<Integer, String> operations = parseMix(mix);
+
+        // when
+        ExecutorService executor = clientExecutor();
+        List<LatencyRecorder> recorders = new CopyOnWriteArrayList<>();
+        CountDownLatch loggedIn = new CountDownLatch(clients);
+        CountDownLatch started = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        List<Future<Object>> futures = IntStream.range(0, clients)
+                .mapToObj(client -> executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    recorders.add(recorder);
+                    runClient(client, operations, loggedIn, started, deadline, recorder);
+                    return null;
+                }))
+                .toList();
+
+        // Only the mix is measured, not every client logging in at once
+        loggedIn.await();
+        long start = System.nanoTime();
+        deadline[0] = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        started.countDown();
+
+        for (Future<Object> future : futures)
+            future.get();
+        executor.shutdown();
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        // then
+        Map<String, Map<String, Object>> endpoints = LatencyRecorder.summarize(recorders, elapsedSeconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("movies", movies);
+        report.put("reviews", reviews);
+        report.put("clients", clients);
+        report.put("profiles", environment.getActiveProfiles());
+        report.put("serverVirtualThreads", Runtime.version().feature() >= 21
+                && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        report.put("clientVirtualThreads", !(executor instanceof ThreadPoolExecutor));
+        report.put("mix", mix);
+        report.put("durationSeconds", elapsedSeconds);
+        report.put("endpoints", endpoints);
+
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writeValue(reportPath.toFile(), report);
+        System.out.println(objectMapper.writeValueAsString(report));
+
+        int errors = endpoints.values().stream().mapToInt(stats -> (int) stats.get("errors")).sum();
+        assertThat(endpoints.isEmpty()).isFalse();
+        assertThat(errors).isEqualTo(0);
+    }
+
+    private void seed() {
+        Role userRole = roleRepository.findByNameIgnoreCase(ERole.User.getName()).orElseThrow();
+        String password = passwordEncoder.encode(PASSWORD);
+
+        emails = IntStream.range(0, users).mapToObj(i -> "load" + i + "@load.com").toList();
+        List<User> savedUsers = userRepository.saveAll(emails.stream()
+                .map(email -> User.builder().email(email).password(password).role(userRole).build())
+                .toList());
+
+        Map<Integer, MovieDto> movieDtos = new LinkedHashMap<>();
+        for (int i = 0; i < movies; i++)
+            movieDtos.put(i, MovieDto.builder()
+                    .title("Load Movie " + i)
+                    .description("Seeded for the load test")
+                    .classificationId(1L)
+                    .genreIds(List.of((long) (i % EGenre.values().length) + 1))
+                    .build());
+        movieService.createAll(movieDtos);
+        movieIds = movieRepository.findAll().stream().map(Movie::getId).toList();
+
+        // Distinct (movie, author) pairs, since a user reviews a movie at most once
+        Random random = new Random(42);
+        Set<Long> pairs = new HashSet<>();
+        List<Review> seededReviews = new ArrayList<>();
+        int maxReviews = Math.min(reviews, users * movies);
+
+        while (seededReviews.size() < maxReviews) {
+            int user = random.nextInt(users);
+            int movie = random.nextInt(movies);
+
+            if (pairs.add((long) user * movies + movie))
+                seededReviews.add(Review.builder()
+                        .author(savedUsers.get(user))
+                        .movie(movieRepository.getReferenceById(movieIds.get(movie)))
+                        .score((short) (1 + random.nextInt(5)))
+                        .content("Seeded review")
+                        .build());
+        }
+        reviewRepository.saveAll(seededReviews);
+
+        // The reviews skip ReviewService, so their scores are folded into the stats rows createAll made
+        Map<Long, List<Short>> scores = seededReviews.stream().collect(Collectors.groupingBy(
+                review -> review.getMovie().getId(),
+                Collectors.mapping(Review::getScore, Collectors.toList())));
+        List<MovieRatingStats> stats = movieRatingStatsRepository.findAllById(scores.keySet());
+        stats.forEach(movieStats -> scores.get(movieStats.getMovieId()).forEach(movieStats::add));
+        movieRatingStatsRepository.saveAll(stats);
+    }
+
+    private void runClient(int client, NavigableMap<Integer, String> operations, CountDownLatch loggedIn,
+                           CountDownLatch started, long[] deadline, LatencyRecorder recorder)
+            throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = emails.get(client % emails.size());
+        String token = null;
+        try {
+            for (int attempt = 0; token == null && attempt < LOGIN_ATTEMPTS; attempt++)
+                token = login(email, new LatencyRecorder());
+        } finally {
+            loggedIn.countDown();
+        }
+
+        if (token == null)
+            throw new IllegalStateException("Client " + client + " could not log in as " + email
+                    + " after " + LOGIN_ATTEMPTS + " attempts");
+        started.await();
+        int totalWeight = operations.lastKey();
+
+        while (System.nanoTime() < deadline[0]) {
+            long movieId = movieIds.get(random.nextInt(movieIds.size()));
+
+            switch (operations.higherEntry(random.nextInt(totalWeight)).getValue()) {
+                case "login" -> token = Objects.requireNonNullElse(login(email, recorder), token);
+                case "browse" -> {
+                    if (random.nextBoolean())
+                        call("GET /api/movies", get("/api/movies?limit=50&after=" + (movieId - 1), token), recorder);
+                    else
+                        call("GET /api/movies/{id}", get("/api/movies/" + movieId, token), recorder);
+                }
+                case "reviews" -> call("GET /api/reviews/of/{movieId}",
+                        get("/api/reviews/of/" + movieId + "?limit=50&sort=" + (random.nextBoolean() ? "Recent" : "Score"), token),
+                        recorder);
+                case "write" -> call("POST /api/reviews/of/{movieId}",
+                        post("/api/reviews/of/" + movieId, token,
+                                "{\"score\":" + (1 + random.nextInt(5)) + ",\"content\":\"Load test review\"}"),
+                        recorder);
+                default -> throw new IllegalStateException();
+            }
+        }
+    }
+
+    private String login(String email, LatencyRecorder recorder) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(AuthenticationRequest.builder().email(email).password(PASSWORD).build());
+        HttpResponse<String> response = call("POST /auth/login", post("/auth/login", null, body), recorder);
+
+        if (response == null || response.statusCode() != 200)
+            return null;
+
+        return objectMapper.readValue(response.body(), AuthenticationResponse.class).getToken();
+    }
+
+    private HttpResponse<String> call(String endpoint, HttpRequest request, LatencyRecorder recorder)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            // Timeouts and refused connections count against the endpoint instead of stopping the client
+            recorder.record(endpoint, System.nanoTime() - start, true);
+            return null;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // A repeated review of the same movie is an expected 409, not a failure
+        int status = response.statusCode();
+        recorder.record(endpoint, elapsed, status >= 400 && status != 409);
+
+        return response;
+    }
+
+    private HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + uri))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String uri, String token, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+
+        if (token != null)
+            request.header("Authorization", "Bearer " + token);
+
+        return request.build();
+    }
+
+    // Cumulative weights, so a random number below the total picks its operation with higherEntry
+    private static NavigableMap<Integer, String> parseMix(String mix) {
+        NavigableMap<Integer, String> operations = new TreeMap<>();
+        int total = 0;
+
+        for (String entry : mix.split(",")) {
+            String[] operation = entry.trim().split(":");
+            int weight = Integer.parseInt(operation[1]);
+
+            if (weight > 0) {
+                total += weight;
+                operations.put(total, operation[0]);
+            }
+        }
+
+        return operations;
+    }
+
+    // Virtual threads when running on Java 21+, one platform thread per client otherwise
+    private ExecutorService clientExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+}